@@ -9,7 +9,9 @@ import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
@@ -17,16 +19,76 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
 import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
+import com.badlogic.gdx.graphics.glutils.ETC1TextureData;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 
 /**
  * Created by lawsonje on 11/30/2016.
+ *
+ * Atlases are split up by screen. atlases.json lists which images go in which atlas (build.gradle packs one atlas per
+ * entry into atlases/) and which atlases each screen draws from. Each screen calls Enter() with its name before it
+ * looks anything up; that loads what the screen needs and unloads what it doesn't, so we only keep the pages on the
+ * GPU that we're actually using. Some atlases aren't tied to a screen (one galaxy's background, a tutorial); those
+ * get Require()d and Release()d as needed.
+ *
+ * Require() waits for the atlas. RequireLater() and Preload() don't: the AssetManager decodes the pages on its own
+ * thread and Update() (every frame, from GravityGrid) uploads them, so the caller checks IsLoaded() before it looks
+ * anything up. Preload() is for an atlas we're only guessing we'll need; there's just the one, and the next Preload()
+ * drops it unless someone Require()d it in the meantime.
+ *
+ * Regions come from findRegion(), which looks through whatever is loaded. Anything a screen holds on to is only good
+ * until an Enter() or Release() unloads its atlas, so a screen that sticks around (the PlayingScreen) needs its atlases
+ * in every screen it goes back and forth with.
+ *
+ * The atlases themselves aren't checked in; any gradle build packs them into android/assets/atlases/. If one is
+ * missing we stop right there instead of limping along without it.
+ *
+ * Atlases that are fully opaque can also have an ETC1 copy in atlases/etc1/ (see the tools module's AtlasCompressor).
+ * On a device that supports ETC1 we load that one instead: its pages go to the GPU as they are, with no PNG to decode,
+ * at an eighth of the memory. libGDX's own texture loader does the upload for .etc1 pages, so all we do is pick the
+ * file. Everywhere else, and for atlases without a copy, it's the PNGs as usual.
  */
 
 public final class AssetLoader {
 
+    static final String MANIFEST = "atlases.json";
+    static final String ATLAS_DIR = "atlases/";
+    static final String ETC1_ATLAS_DIR = "atlases/etc1/";
+    static final String ETC1_EXTENSION = "GL_OES_compressed_ETC1_RGB8_texture";
+
+    // Screen names in atlases.json
+    static final String SCREEN_LOADING = "loading";
+    static final String SCREEN_MAIN_MENU = "mainmenu";
+    static final String SCREEN_LEVEL_SELECT = "levelselect";
+    static final String SCREEN_PLAYING = "playing";
+
     private AssetManager assets;
-    private TextureAtlas atlas;
+
+    // From atlases.json: the atlases each screen uses
+    private final HashMap<String, List<String>> screenAtlases = new HashMap<String, List<String>>();
+
+    // The file we load for each atlas in the manifest: the ETC1 copy if we can use one, otherwise the PNG one
+    private final HashMap<String, String> atlasFiles = new HashMap<String, String>();
+
+    // How long the loading screen took to load everything, and what's on the GPU for the atlases that are loaded
+    private long loadStartNanos;
+
+    // Atlases that are loaded, in the order findRegion() should look through them, and the ones someone Require()d
+    private final ArrayList<String> loadedAtlases = new ArrayList<String>();
+    private final HashSet<String> requiredAtlases = new HashSet<String>();
+
+    // Atlases the AssetManager is still loading for RequireLater() or Preload(), and the one we Preload()ed
+    private final HashSet<String> queuedAtlases = new HashSet<String>();
+    private String preloadedAtlas;
+    private String currentScreen = SCREEN_LOADING;
 
     private int fontSize = 60;
     
@@ -46,7 +108,226 @@ public final class AssetLoader {
     public AssetManager getAssetManager() {
         return this.assets;
     }
-    public TextureAtlas getAtlas() { return this.atlas; }
+
+    // Reads atlases.json. Throws if any atlas in it hasn't been packed.
+    private void LoadManifest() {
+        screenAtlases.clear();
+        atlasFiles.clear();
+
+        JsonValue manifest = new JsonReader().parse(Gdx.files.internal(MANIFEST));
+        boolean etc1 = Gdx.graphics.supportsExtension(ETC1_EXTENSION);
+
+        for(JsonValue atlas = manifest.get("atlases").child; atlas != null; atlas = atlas.next) {
+            String png = ATLAS_DIR + atlas.name + ".atlas";
+            String compressed = ETC1_ATLAS_DIR + atlas.name + ".atlas";
+
+            if(etc1 && Gdx.files.internal(compressed).exists()) {
+                atlasFiles.put(atlas.name, compressed);
+            } else if(Gdx.files.internal(png).exists()) {
+                atlasFiles.put(atlas.name, png);
+            } else {
+                throw new GdxRuntimeException(png + " hasn't been packed; build.gradle packs every atlas in " + MANIFEST);
+            }
+        }
+
+        for(JsonValue screen = manifest.get("screens").child; screen != null; screen = screen.next) {
+            List<String> atlases = new ArrayList<String>();
+            for(String atlas : screen.asStringArray()) {
+                atlases.add(atlas);
+            }
+            screenAtlases.put(screen.name, atlases);
+        }
+    }
+
+    private String AtlasFile(String atlas) {
+        String file = atlasFiles.get(atlas);
+        if(file == null) {
+            throw new GdxRuntimeException("No atlas " + atlas + " in " + MANIFEST);
+        }
+        return file;
+    }
+
+    private List<String> AtlasesFor(String screen) {
+        List<String> atlases = new ArrayList<String>();
+        List<String> listed = screenAtlases.get(screen);
+        if(listed == null) {
+            Gdx.app.error("AssetLoader", "No atlases listed for screen " + screen);
+        } else {
+            atlases.addAll(listed);
+        }
+        return atlases;
+    }
+
+    // Queue the atlases `screen` needs, without waiting for them
+    private void QueueAtlases(String screen) {
+        for(String atlas : AtlasesFor(screen)) {
+            if(!getAssetManager().isLoaded(AtlasFile(atlas), TextureAtlas.class)) {
+                getAssetManager().load(AtlasFile(atlas), TextureAtlas.class);
+            }
+        }
+    }
+
+    // Switch to `screen`: load the atlases it uses (waiting for them, if they weren't preloaded) and unload every other
+    // atlas that nobody has Require()d.
+    public void Enter(String screen) {
+        currentScreen = screen;
+        List<String> wanted = AtlasesFor(screen);
+
+        for(int a = loadedAtlases.size() - 1; a >= 0; a--) {
+            String atlas = loadedAtlases.get(a);
+            if(!wanted.contains(atlas) && !requiredAtlases.contains(atlas) && !atlas.equals(preloadedAtlas)) {
+                Unload(atlas);
+            }
+        }
+
+        for(String atlas : wanted) {
+            Load(atlas);
+        }
+    }
+
+    // Keep `atlas` loaded until Release(), whatever screen we're on
+    public void Require(String atlas) {
+        requiredAtlases.add(atlas);
+        if(atlas.equals(preloadedAtlas)) {
+            preloadedAtlas = null; // It's Require()d now, so it stays
+        }
+        Load(atlas);
+    }
+
+    // Like Require(), but without waiting for it: it's ready once IsLoaded() says so
+    public void RequireLater(String atlas) {
+        requiredAtlases.add(atlas);
+        if(atlas.equals(preloadedAtlas)) {
+            preloadedAtlas = null;
+        }
+        StartLoading(atlas);
+    }
+
+    // Start loading `atlas` because we'll probably need it soon. Whatever was preloaded before goes, unless it got
+    // Require()d or the current screen uses it.
+    public void Preload(String atlas) {
+        if(atlas.equals(preloadedAtlas)) {
+            return;
+        }
+        if(preloadedAtlas != null && !AtlasesFor(currentScreen).contains(preloadedAtlas)) {
+            Unload(preloadedAtlas);
+        }
+        preloadedAtlas = null;
+
+        if(!requiredAtlases.contains(atlas) && !loadedAtlases.contains(atlas) && !queuedAtlases.contains(atlas)) {
+            preloadedAtlas = atlas;
+            StartLoading(atlas);
+        }
+    }
+
+    // True once `atlas` is loaded and findRegion() can find what's in it
+    public boolean IsLoaded(String atlas) {
+        if(loadedAtlases.contains(atlas)) {
+            return true;
+        }
+        if(queuedAtlases.contains(atlas) && getAssetManager().isLoaded(AtlasFile(atlas), TextureAtlas.class)) {
+            queuedAtlases.remove(atlas);
+            loadedAtlases.add(atlas);
+            Gdx.app.debug("AssetLoader", "Loaded " + AtlasFile(atlas) + " in the background, "
+                    + (TextureBytes(atlas) / 1024) + "KB on the GPU");
+            return true;
+        }
+        return false;
+    }
+
+    // Moves along whatever RequireLater() and Preload() started. Call once a frame.
+    public void Update() {
+        if(!queuedAtlases.isEmpty()) {
+            getAssetManager().update();
+        }
+    }
+
+    // Done with an atlas we Require()d. It's unloaded unless the current screen uses it.
+    public void Release(String atlas) {
+        if(!requiredAtlases.remove(atlas)) {
+            return;
+        }
+        if(!AtlasesFor(currentScreen).contains(atlas)) {
+            Unload(atlas);
+        }
+    }
+
+    private void Load(String atlas) {
+        StartLoading(atlas);
+        if(queuedAtlases.remove(atlas)) {
+            // Not there yet (or not even started), so wait for the rest of it
+            long start = System.nanoTime();
+            getAssetManager().finishLoadingAsset(AtlasFile(atlas));
+            loadedAtlases.add(atlas);
+            Gdx.app.debug("AssetLoader", "Loaded " + AtlasFile(atlas) + " in " + ((System.nanoTime() - start) / 1000000)
+                    + "ms, " + (TextureBytes(atlas) / 1024) + "KB on the GPU");
+        }
+    }
+
+    // Ask the AssetManager for `atlas` unless it's already loaded (the loading screen queues the main menu's atlases
+    // itself) or on its way
+    private void StartLoading(String atlas) {
+        if(loadedAtlases.contains(atlas) || queuedAtlases.contains(atlas)) {
+            return;
+        }
+        if(getAssetManager().isLoaded(AtlasFile(atlas), TextureAtlas.class)) {
+            loadedAtlases.add(atlas);
+        } else {
+            getAssetManager().load(AtlasFile(atlas), TextureAtlas.class);
+            queuedAtlases.add(atlas);
+        }
+    }
+
+    // Roughly how much GPU memory `atlas`'s pages take
+    private long TextureBytes(String atlas) {
+        long bytes = 0;
+        for(Texture texture : getAssetManager().get(AtlasFile(atlas), TextureAtlas.class).getTextures()) {
+            TextureData data = texture.getTextureData();
+            long pixels = (long) texture.getWidth() * texture.getHeight();
+
+            if(data instanceof ETC1TextureData) {
+                bytes += pixels / 2; // 4 bits a pixel
+            } else {
+                Pixmap.Format format = data.getFormat();
+                if(format == Pixmap.Format.RGBA8888) { bytes += pixels * 4; }
+                else if(format == Pixmap.Format.RGB888) { bytes += pixels * 3; }
+                else if(format == Pixmap.Format.Alpha || format == Pixmap.Format.Intensity) { bytes += pixels; }
+                else { bytes += pixels * 2; }
+            }
+        }
+        return bytes;
+    }
+
+    // What all the loaded atlases take on the GPU
+    public long getTextureBytes() {
+        long bytes = 0;
+        for(String atlas : loadedAtlases) {
+            bytes += TextureBytes(atlas);
+        }
+        return bytes;
+    }
+
+    // Also cancels an atlas that's still loading
+    private void Unload(String atlas) {
+        if(loadedAtlases.remove(atlas) | queuedAtlases.remove(atlas)) {
+            getAssetManager().unload(AtlasFile(atlas));
+        }
+        if(atlas.equals(preloadedAtlas)) {
+            preloadedAtlas = null;
+        }
+    }
+
+    // Looks `name` up in each loaded atlas. Null (and an error in the log) if none of them have it.
+    public TextureAtlas.AtlasRegion findRegion(String name) {
+        for(String atlas : loadedAtlases) {
+            TextureAtlas.AtlasRegion region = getAssetManager().get(AtlasFile(atlas), TextureAtlas.class).findRegion(name);
+            if(region != null) {
+                return region;
+            }
+        }
+        Gdx.app.error("AssetLoader", "No region " + name + " in " + loadedAtlases);
+        return null;
+    }
 
     // Initial assets are those that are required to show a loading screen
     // It always ends with finishLoading();
@@ -98,7 +379,11 @@ public final class AssetLoader {
 
     public void LoadAllAssets() {
 
-        getAssetManager().load("GravityGridAtlas.atlas", TextureAtlas.class);
+        loadStartNanos = System.nanoTime();
+
+        // The main menu's atlases (which include the level select's, since that's the only place it goes)
+        LoadManifest();
+        QueueAtlases(SCREEN_MAIN_MENU);
 
         //getAssetManager().load("sounds/galaxy1music.mp3", Music.class);
        // getAssetManager().load("sounds/galaxy2music.mp3", Music.class);
@@ -184,12 +469,20 @@ public final class AssetLoader {
 
     // Called AFTER everything is finished in InitialLoadingScreen
     public void FinalizeAssets() {
-        this.atlas = getAssetManager().get("GravityGridAtlas.atlas", TextureAtlas.class);
+        // Everything we queued is loaded now, so this doesn't wait on anything
+        Enter(SCREEN_MAIN_MENU);
+
+        Gdx.app.debug("AssetLoader", "Loading screen took " + ((System.nanoTime() - loadStartNanos) / 1000000) + "ms; "
+                + loadedAtlases + " are " + (getTextureBytes() / 1024) + "KB on the GPU");
     }
 
     public void dispose() {
         getAssetManager().clear(); // Clear out all assets that have been loaded.
         getAssetManager().dispose(); // Dispose of all our assets
+        loadedAtlases.clear();
+        requiredAtlases.clear();
+        queuedAtlases.clear();
+        preloadedAtlas = null;
         this.assets = null;
     }
 
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import java.util.Random;
+
+/**
+ * Builds levels backwards: start from the finished board and undo moves until we have a starting board.
+ *
+ * BitboardLevelGenerator places planets at random, moves them around, and then LevelHandler throws the level away if
+ * any color ended up back at its starting total. At high complexity that's most of the work. Here we lay out the
+ * solution first (reds in a diagonal cluster, blues in an up/down/left/right cluster, greens spread out so none touch)
+ * and then repeatedly take a planet that's sitting somewhere legal and put it back on some unused tile. Playing those
+ * moves forwards is always legal, since the planet's landing spot satisfied its rule when we picked it up. We never
+ * pick a tile that would put a color's total back on its target, so every color starts unsolved and the level passes
+ * LevelHandler's checks by construction.
+ *
+ * It can still return null, but only when the parameters can't really work: a red or blue with no partner to sit
+ * next to, fewer moves than colors, or no room left on the board to put things.
+ *
+ * Same output and ownership rules as BitboardLevelGenerator._GenerateLevel().
+ */
+
+public class BackwardLevelGenerator extends BitboardLevelGenerator {
+
+    public BackwardLevelGenerator() {
+        super();
+    }
+
+    public BackwardLevelGenerator(Random random) {
+        super(random);
+    }
+
+    @Override
+    public int[][] _GenerateLevel(int complexity, int redWeight, int blueWeight, int greenWeight, boolean genAsteroids, boolean genSuns) {
+
+        clear();
+
+        int colors = (redWeight > 0 ? 1 : 0) + (blueWeight > 0 ? 1 : 0) + (greenWeight > 0 ? 1 : 0);
+        if(colors == 0 || complexity < colors) {
+            // Either nothing to move, or not enough moves to move every color
+            return null;
+        }
+
+        // Lay out the solved board
+        red = placeCluster(Bitboard.RED, redWeight);
+        blue = placeCluster(Bitboard.BLUE, blueWeight);
+        green = placeCluster(Bitboard.GREEN, greenWeight);
+
+        if(Long.bitCount(red) != redWeight || Long.bitCount(blue) != blueWeight || Long.bitCount(green) != greenWeight) {
+            // Ran out of room to grow a cluster
+            return null;
+        }
+
+        int redTarget = Bitboard.total(red);
+        int blueTarget = Bitboard.total(blue);
+        int greenTarget = Bitboard.total(green);
+
+        int redTotal = redTarget;
+        int blueTotal = blueTarget;
+        int greenTotal = greenTarget;
+
+        boolean redHandled = redWeight == 0;
+        boolean blueHandled = blueWeight == 0;
+        boolean greenHandled = greenWeight == 0;
+
+        for(int i = 0; i < complexity; i++) {
+
+            // Planets we're allowed to pick up: ones sitting where their rule says they could have landed. Colors we
+            // haven't moved yet go first.
+            long selectable = 0;
+            if(!redHandled) { selectable |= movable(Bitboard.RED, red); }
+            if(!blueHandled) { selectable |= movable(Bitboard.BLUE, blue); }
+            if(!greenHandled) { selectable |= movable(Bitboard.GREEN, green); }
+
+            if(redHandled && blueHandled && greenHandled) {
+                selectable = movable(Bitboard.RED, red) | movable(Bitboard.BLUE, blue) | movable(Bitboard.GREEN, green);
+            }
+
+            int from = -1;
+            int to = -1;
+
+            while(selectable != 0 && to < 0) {
+                from = Bitboard.nthTile(selectable, random(0, Long.bitCount(selectable) - 1));
+                long fromBit = Bitboard.bit(from);
+
+                int total;
+                int target;
+                if((red & fromBit) != 0) { total = redTotal; target = redTarget; }
+                else if((blue & fromBit) != 0) { total = blueTotal; target = blueTarget; }
+                else { total = greenTotal; target = greenTarget; }
+
+                // Where it could have come from: any tile no planet has used, with a different value (so the move
+                // does something), and not the one value that would put this color right back on its target
+                long origins = Bitboard.FULL & ~levelFlagged & ~Bitboard.VALUE_MASK[Bitboard.VALUE[from]];
+
+                int solvedValue = target - total + Bitboard.VALUE[from];
+                if(solvedValue >= 0 && solvedValue <= 10) {
+                    origins &= ~Bitboard.VALUE_MASK[solvedValue];
+                }
+
+                // Pick an origin at random, but if there are more moves to make, don't strand the board with nothing
+                // left to pick up (two reds pulled apart can't be moved again, for example)
+                boolean lastMove = i == complexity - 1;
+                while(origins != 0) {
+                    int candidate = Bitboard.nthTile(origins, random(0, Long.bitCount(origins) - 1));
+
+                    if(lastMove || hasMovableAfter(fromBit, Bitboard.bit(candidate))) {
+                        to = candidate;
+                        break;
+                    }
+                    origins &= ~Bitboard.bit(candidate);
+                }
+
+                if(to < 0) {
+                    // Nowhere for this one to go, try someone else
+                    selectable &= ~fromBit;
+                }
+            }
+
+            if(to < 0) {
+                return null;
+            }
+
+            long fromBit = Bitboard.bit(from);
+            long toBit = Bitboard.bit(to);
+            int delta = Bitboard.VALUE[to] - Bitboard.VALUE[from];
+
+            if((red & fromBit) != 0) {
+                red = (red & ~fromBit) | toBit;
+                redTotal += delta;
+                redHandled = true;
+            } else if((blue & fromBit) != 0) {
+                blue = (blue & ~fromBit) | toBit;
+                blueTotal += delta;
+                blueHandled = true;
+            } else {
+                green = (green & ~fromBit) | toBit;
+                greenTotal += delta;
+                greenHandled = true;
+            }
+
+            levelFlagged |= toBit;
+        }
+
+        placeObstacles(genAsteroids, genSuns);
+
+        // Where the planets are now is where the player starts
+        return writeResult(red, blue, green, redTarget, blueTarget, greenTarget, complexity);
+    }
+
+    // Put `count` planets of `type` on unflagged tiles, each one legal next to the ones already down
+    private long placeCluster(int type, int count) {
+        long placed = 0;
+
+        for(int a = 0; a < count; a++) {
+            long free = Bitboard.FULL & ~levelFlagged;
+            if(placed != 0) {
+                free &= Bitboard.legalDestinations(type, placed);
+            }
+            if(free == 0) {
+                break;
+            }
+
+            long tile = Bitboard.bit(Bitboard.nthTile(free, random(0, Long.bitCount(free) - 1)));
+            placed |= tile;
+            levelFlagged |= tile;
+        }
+
+        return placed;
+    }
+
+    // Would anything still be movable if the planet at fromBit went to toBit?
+    private boolean hasMovableAfter(long fromBit, long toBit) {
+        long r = red;
+        long b = blue;
+        long g = green;
+
+        if((r & fromBit) != 0) { r = (r & ~fromBit) | toBit; }
+        else if((b & fromBit) != 0) { b = (b & ~fromBit) | toBit; }
+        else { g = (g & ~fromBit) | toBit; }
+
+        return (movable(Bitboard.RED, r) | movable(Bitboard.BLUE, b) | movable(Bitboard.GREEN, g)) != 0;
+    }
+
+    // The planets of one color that are somewhere they could legally have been moved to
+    private static long movable(int type, long planets) {
+        long movable = 0;
+        long m = planets;
+
+        while(m != 0) {
+            int tile = Long.numberOfTrailingZeros(m);
+            m &= m - 1;
+
+            if(Bitboard.canMove(type, planets & ~Bitboard.bit(tile), tile)) {
+                movable |= Bitboard.bit(tile);
+            }
+        }
+
+        return movable;
+    }
+}
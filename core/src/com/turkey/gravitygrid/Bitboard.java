@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+/**
+ * Bit-level view of the 7x7 board.
+ *
+ * Every tile type on the board is stored as a single long where bit N is set if tile N holds that type. Tile numbers
+ * are the same ones we use everywhere else:
+ *
+ * 42 43 44 45 46 47 48
+ * 35 36 37 38 39 40 41
+ * 28 29 30 31 32 33 34
+ * 21 22 23 24 25 26 27
+ * 14 15 16 17 18 19 20
+ * 07 08 09 10 11 12 13
+ * 00 01 02 03 04 05 06
+ *
+ * The neighbour masks are computed once so the movement rules become a couple of ANDs instead of the big
+ * edge-and-corner switch statements.
+ */
+
+public final class Bitboard {
+
+    public static final int TILES = 49;
+
+    // All 49 tiles set
+    public static final long FULL = (1L << TILES) - 1;
+
+    // Level legend (same as the level arrays)
+    public static final int NONE = 0;
+    public static final int RED = 1;
+    public static final int BLUE = 2;
+    public static final int GREEN = 3;
+    public static final int ASTEROID = 4;
+    public static final int SUN = 5;
+    public static final int BLOCKED = 9;
+
+    // This array holds the values of each tile
+    public static final int[] VALUE = new int[] { 0,1,3,5,3,1,0,1,2,4,6,4,2,1,3,4,6,8,6,4,3,5,6,8,10,8,6,5,3,4,6,8,6,4,3,1,2,4,6,4,2,1,0,1,3,5,3,1,0 };
+
+    // The biggest total a single color could ever have (every tile on the board)
+    public static final int MAX_TOTAL = 182;
+
+    // Tiles that touch tile N up, down, left, or right (blue rule)
+    public static final long[] ORTHOGONAL = new long[TILES];
+
+    // Tiles that touch tile N on a diagonal (red rule)
+    public static final long[] DIAGONAL = new long[TILES];
+
+    // All eight tiles around tile N (green rule and the sun's blocked ring)
+    public static final long[] SURROUNDING = new long[TILES];
+
+    // Every tile whose value is N. Used to skip destinations that wouldn't change a score.
+    public static final long[] VALUE_MASK = new long[11];
+
+    static {
+        for(int tile = 0; tile < TILES; tile++) {
+            int row = tile / 7;
+            int col = tile % 7;
+
+            for(int dr = -1; dr <= 1; dr++) {
+                for(int dc = -1; dc <= 1; dc++) {
+                    if(dr == 0 && dc == 0) {
+                        continue;
+                    }
+
+                    int r = row + dr;
+                    int c = col + dc;
+
+                    // Don't wrap around the edges of the board
+                    if(r < 0 || r > 6 || c < 0 || c > 6) {
+                        continue;
+                    }
+
+                    long neighbour = bit((r * 7) + c);
+
+                    SURROUNDING[tile] |= neighbour;
+
+                    if(dr == 0 || dc == 0) {
+                        ORTHOGONAL[tile] |= neighbour;
+                    } else {
+                        DIAGONAL[tile] |= neighbour;
+                    }
+                }
+            }
+
+            VALUE_MASK[VALUE[tile]] |= bit(tile);
+        }
+    }
+
+    private Bitboard() {
+    }
+
+    public static long bit(int tile) {
+        return 1L << tile;
+    }
+
+    public static boolean has(long mask, int tile) {
+        return (mask & (1L << tile)) != 0;
+    }
+
+    // Sum of the tile values under every set bit
+    public static int total(long mask) {
+        int total = 0;
+        while(mask != 0) {
+            total += VALUE[Long.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return total;
+    }
+
+    // Every tile that a planet of `type` could move to according to the rules, given the other planets of the same
+    // color (the moving planet must already be removed from `others`). This only answers the color rule; the caller
+    // still has to make sure the destination is empty.
+    public static long legalDestinations(int type, long others) {
+        long reach = 0;
+        long m = others;
+
+        switch(type) {
+            case RED:
+                // Reds are placed diagonally to another red
+                while(m != 0) {
+                    reach |= DIAGONAL[Long.numberOfTrailingZeros(m)];
+                    m &= m - 1;
+                }
+                return reach;
+            case BLUE:
+                // Blues are placed up, down, left, or right of another blue
+                while(m != 0) {
+                    reach |= ORTHOGONAL[Long.numberOfTrailingZeros(m)];
+                    m &= m - 1;
+                }
+                return reach;
+            case GREEN:
+                // Greens can go anywhere that isn't touching another green
+                while(m != 0) {
+                    reach |= SURROUNDING[Long.numberOfTrailingZeros(m)];
+                    m &= m - 1;
+                }
+                return FULL & ~reach;
+            default:
+                return 0;
+        }
+    }
+
+    // The movement rules, for a single destination: can a planet of `type` move to `destination` when the other planets
+    // of its color (not the one that's moving) are at `others`? PlayingScreen.canMoveAccordingToRules() asks this too,
+    // so the game, the generator and LevelSolver all play by the same rules.
+    public static boolean canMove(int type, long others, int destination) {
+        switch(type) {
+            case RED: return (DIAGONAL[destination] & others) != 0;
+            case BLUE: return (ORTHOGONAL[destination] & others) != 0;
+            case GREEN: return (SURROUNDING[destination] & others) == 0;
+            default: return false;
+        }
+    }
+
+    // Returns the tile number of the index'th set bit (0 = lowest)
+    public static int nthTile(long mask, int index) {
+        for(int i = 0; i < index; i++) {
+            mask &= mask - 1;
+        }
+        return Long.numberOfTrailingZeros(mask);
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Builds random levels by placing planets and moving them around. The board lives in a handful of longs (see
+ * Bitboard) instead of an ArrayList of Tile objects, and the moves follow Bitboard.canMove(), the same rules the game
+ * and LevelSolver use. Once constructed, _GenerateLevel() doesn't allocate anything, so we can call it millions of
+ * times when building level packs.
+ *
+ * NOTE: The arrays returned by _GenerateLevel() are owned by the generator and get overwritten on the next call.
+ * Clone them if you need to keep them around (LevelHandler.GenerateLevel() already does).
+ *
+ * Every random choice comes from the Random we're given (MathUtils.random by default), so a generator that is
+ * handed a freshly seeded Random always builds the same level.
+ */
+
+public class BitboardLevelGenerator {
+
+    // Which way levels get built. RANDOM_MOVES is this class; BACKWARD is BackwardLevelGenerator.
+    public enum Strategy {
+        RANDOM_MOVES, BACKWARD
+    }
+
+    public static BitboardLevelGenerator create(Strategy strategy) {
+        switch(strategy) {
+            case BACKWARD: return new BackwardLevelGenerator();
+            default: return new BitboardLevelGenerator();
+        }
+    }
+
+    // One long per tile type. levelFlagged: anytime a planet has been on a tile or moves to a tile, it's flagged so we
+    // never use it again (and so asteroids/suns can go everywhere else).
+    protected long red;
+    protected long blue;
+    protected long green;
+    protected long asteroid;
+    protected long sun;
+    protected long blocked;
+    protected long levelFlagged;
+
+    // Scores we've already seen for each color, so that no move puts us back to where we were
+    private final boolean[] historicRedValues = new boolean[Bitboard.MAX_TOTAL + 1];
+    private final boolean[] historicBlueValues = new boolean[Bitboard.MAX_TOTAL + 1];
+    private final boolean[] historicGreenValues = new boolean[Bitboard.MAX_TOTAL + 1];
+
+    // Reused output: {intendedResult, levelFinal}. intendedResult is the starting and target total for red, then blue,
+    // then green; levelFinal is the 49 tiles plus red, blue and green needed and the moves allowed.
+    private final int[] intendedResult = new int[6];
+    private final int[] levelFinal = new int[53];
+    private final int[][] result = new int[][]{intendedResult, levelFinal};
+
+    private Random random;
+
+    public BitboardLevelGenerator() {
+        this(MathUtils.random);
+    }
+
+    public BitboardLevelGenerator(Random random) {
+        this.random = random;
+    }
+
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+
+    public int[][] _GenerateLevel(int complexity, int redWeight, int blueWeight, int greenWeight, boolean genAsteroids, boolean genSuns) {
+
+        clear();
+
+        Arrays.fill(historicRedValues, false);
+        Arrays.fill(historicBlueValues, false);
+        Arrays.fill(historicGreenValues, false);
+
+        // First step is to randomly place planets according to how many of each we want. Placing a planet flags
+        // its tile so we don't select it next time.
+        red = placeRandomly(redWeight);
+        blue = placeRandomly(blueWeight);
+        green = placeRandomly(greenWeight);
+
+        int redTotal = Bitboard.total(red);
+        int blueTotal = Bitboard.total(blue);
+        int greenTotal = Bitboard.total(green);
+
+        historicRedValues[redTotal] = true;
+        historicBlueValues[blueTotal] = true;
+        historicGreenValues[greenTotal] = true;
+
+        // The planets we ship are the ones from before we move anything around
+        long startRed = red;
+        long startBlue = blue;
+        long startGreen = green;
+
+        // Now, for every complexity point, move a random planet to a non-flagged tile according to that planet's
+        // rules. Make sure each color present gets moved at least once so no color starts the level completed.
+        boolean redHandled = redWeight == 0;
+        boolean blueHandled = blueWeight == 0;
+        boolean greenHandled = greenWeight == 0;
+
+        int primaryMoves = redWeight + blueWeight + greenWeight;
+        int numMovesNeeded = 0;
+
+        for(int i = 1; i <= complexity; i++) {
+
+            // Select a random planet, preferring colors we haven't moved yet
+            long selectable = 0;
+            if(!redHandled) { selectable |= red; }
+            if(!blueHandled) { selectable |= blue; }
+            if(!greenHandled) { selectable |= green; }
+            if(selectable == 0) {
+                selectable = red | blue | green;
+            }
+
+            if(selectable == 0) {
+                // No planets at all, nothing to move
+                return null;
+            }
+
+            int selectedNum = Bitboard.nthTile(selectable, random(0, Long.bitCount(selectable) - 1));
+            long selectedBit = Bitboard.bit(selectedNum);
+            int selectedType;
+            long others;
+
+            if((red & selectedBit) != 0) {
+                selectedType = Bitboard.RED;
+                others = red & ~selectedBit;
+                redHandled = true;
+            } else if((blue & selectedBit) != 0) {
+                selectedType = Bitboard.BLUE;
+                others = blue & ~selectedBit;
+                blueHandled = true;
+            } else {
+                selectedType = Bitboard.GREEN;
+                others = green & ~selectedBit;
+                greenHandled = true;
+            }
+
+            // Every tile we could move to: never used before, allowed by the rules, and of a different value so the
+            // move actually changes the score
+            long possibleDestinations = Bitboard.FULL & ~levelFlagged
+                    & Bitboard.legalDestinations(selectedType, others)
+                    & ~Bitboard.VALUE_MASK[Bitboard.VALUE[selectedNum]];
+
+            int destination = -1;
+
+            while(possibleDestinations != 0) {
+                int candidate = Bitboard.nthTile(possibleDestinations, random(0, Long.bitCount(possibleDestinations) - 1));
+
+                // Only care about whether the scores are being duplicated AFTER n moves, where n is the number of planets
+                if(i < primaryMoves) {
+                    destination = candidate;
+                    break;
+                }
+
+                int hypotheticalTotal;
+                boolean[] historic;
+                switch(selectedType) {
+                    case Bitboard.RED: hypotheticalTotal = redTotal; historic = historicRedValues; break;
+                    case Bitboard.BLUE: hypotheticalTotal = blueTotal; historic = historicBlueValues; break;
+                    default: hypotheticalTotal = greenTotal; historic = historicGreenValues; break;
+                }
+                hypotheticalTotal += Bitboard.VALUE[candidate] - Bitboard.VALUE[selectedNum];
+
+                if(!historic[hypotheticalTotal]) {
+                    destination = candidate;
+                    break;
+                }
+
+                // This would put us back to a historic value, so cross it off and try another one
+                possibleDestinations &= ~Bitboard.bit(candidate);
+            }
+
+            if(destination < 0) {
+                // There are no possible destinations, so we skip this one.
+                return null;
+            }
+
+            long destinationBit = Bitboard.bit(destination);
+            int delta = Bitboard.VALUE[destination] - Bitboard.VALUE[selectedNum];
+
+            switch(selectedType) {
+                case Bitboard.RED: red = (red & ~selectedBit) | destinationBit; redTotal += delta; break;
+                case Bitboard.BLUE: blue = (blue & ~selectedBit) | destinationBit; blueTotal += delta; break;
+                default: green = (green & ~selectedBit) | destinationBit; greenTotal += delta; break;
+            }
+
+            levelFlagged |= destinationBit; // Flag the location as dirty
+
+            historicRedValues[redTotal] = true;
+            historicBlueValues[blueTotal] = true;
+            historicGreenValues[greenTotal] = true;
+
+            numMovesNeeded++;
+        }
+
+        // At this point, we have all the things we need for our level. Stick asteroids and suns on the tiles that
+        // no planet has ever touched.
+        placeObstacles(genAsteroids, genSuns);
+
+        return writeResult(startRed, startBlue, startGreen, redTotal, blueTotal, greenTotal, numMovesNeeded);
+    }
+
+    protected void clear() {
+        red = 0;
+        blue = 0;
+        green = 0;
+        asteroid = 0;
+        sun = 0;
+        blocked = 0;
+        levelFlagged = 0;
+    }
+
+    // Asteroids and suns go on tiles that no planet has ever been on, so they can never get in the way of the moves
+    // that make the level solvable.
+    protected void placeObstacles(boolean genAsteroids, boolean genSuns) {
+        if(genAsteroids) {
+            long possibleAsteroids = Bitboard.FULL & ~levelFlagged;
+            int count = Long.bitCount(possibleAsteroids);
+
+            if(count > 0) {
+                int numAsteroids = count > 1 ? random(1, count - 1) : 1;
+
+                for(int a = 0; a < numAsteroids; a++) {
+                    asteroid |= Bitboard.bit(Bitboard.nthTile(possibleAsteroids, random(0, count - 1)));
+                }
+            }
+        }
+
+        if(genSuns) {
+            // A sun needs its own tile and all eight around it to be untouched
+            long possibleSuns = 0;
+            for(int a = 0; a < Bitboard.TILES; a++) {
+                if(((Bitboard.SURROUNDING[a] | Bitboard.bit(a)) & levelFlagged) == 0) {
+                    possibleSuns |= Bitboard.bit(a);
+                }
+            }
+
+            if(possibleSuns != 0) {
+                int sunTile = Bitboard.nthTile(possibleSuns, random(0, Long.bitCount(possibleSuns) - 1));
+
+                sun = Bitboard.bit(sunTile);
+                blocked = Bitboard.SURROUNDING[sunTile];
+                asteroid &= ~(sun | blocked); // The sun covers up any asteroids underneath it
+            }
+        }
+    }
+
+    // Fill in the output arrays: the planets the player starts with, our obstacles, and the targets/par
+    protected int[][] writeResult(long startRed, long startBlue, long startGreen, int redTarget, int blueTarget, int greenTarget, int par) {
+
+        for(int a = 0; a < Bitboard.TILES; a++) {
+            long b = Bitboard.bit(a);
+            if((startRed & b) != 0) { levelFinal[a] = Bitboard.RED; }
+            else if((startBlue & b) != 0) { levelFinal[a] = Bitboard.BLUE; }
+            else if((startGreen & b) != 0) { levelFinal[a] = Bitboard.GREEN; }
+            else if((sun & b) != 0) { levelFinal[a] = Bitboard.SUN; }
+            else if((blocked & b) != 0) { levelFinal[a] = Bitboard.BLOCKED; }
+            else if((asteroid & b) != 0) { levelFinal[a] = Bitboard.ASTEROID; }
+            else { levelFinal[a] = Bitboard.NONE; }
+        }
+
+        // Add the final elements of the level string
+        levelFinal[49] = redTarget;
+        levelFinal[50] = blueTarget;
+        levelFinal[51] = greenTarget;
+        levelFinal[52] = par;
+
+        intendedResult[0] = Bitboard.total(startRed);
+        intendedResult[1] = redTarget;
+        intendedResult[2] = Bitboard.total(startBlue);
+        intendedResult[3] = blueTarget;
+        intendedResult[4] = Bitboard.total(startGreen);
+        intendedResult[5] = greenTarget;
+
+        return result;
+    }
+
+    // Put `count` planets on random unflagged tiles, flag them, and return their mask
+    protected long placeRandomly(int count) {
+        long placed = 0;
+
+        for(int a = 0; a < count; a++) {
+            long free = Bitboard.FULL & ~levelFlagged;
+            if(free == 0) {
+                break;
+            }
+            long tile = Bitboard.bit(Bitboard.nthTile(free, random(0, Long.bitCount(free) - 1)));
+            placed |= tile;
+            levelFlagged |= tile;
+        }
+
+        return placed;
+    }
+
+    // Same as MathUtils.random(start, end), but from our own generator
+    protected int random(int start, int end) {
+        return start + random.nextInt(end - start + 1);
+    }
+}
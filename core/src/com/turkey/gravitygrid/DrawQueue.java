@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.Comparator;
+
+/**
+ * Collects a frame's sprites and draws them sorted by layer, then by atlas page. The atlas is split over eleven pages
+ * and SpriteBatch has to flush every time the texture changes, so drawing the board tile by tile (planet, number, sun,
+ * flare, planet, ...) used to flush several times per tile. Sorted, it's about one flush per page per layer.
+ *
+ * Sprites are only reordered within a layer, and only between different pages; two sprites on the same page in the
+ * same layer are drawn in the order they were added. So anything that overlaps something else has to go in its own
+ * layer (see PlayingScreen's LAYER_ constants).
+ *
+ * Use it like a SpriteBatch: SetColor(), Draw() as much as you like, then Flush() between batch.begin() and end().
+ */
+
+final class DrawQueue {
+
+    static final class Command {
+        int layer;
+        int page;
+        int order;
+        TextureRegion region;
+        float x, y, originX, originY, width, height, scaleX, scaleY, rotation;
+        float color;
+    }
+
+    private final Pool<Command> pool = new Pool<Command>(64) {
+        @Override
+        protected Command newObject() {
+            return new Command();
+        }
+    };
+
+    private final Array<Command> commands = new Array<Command>(false, 64, Command.class);
+
+    // Pages get numbered in the order we first see them, so sorting doesn't depend on texture handles
+    private final ObjectIntMap<Texture> pages = new ObjectIntMap<Texture>();
+
+    private final Comparator<Command> byLayerThenPage = new Comparator<Command>() {
+        @Override
+        public int compare(Command a, Command b) {
+            if(a.layer != b.layer) {
+                return a.layer < b.layer ? -1 : 1;
+            }
+            if(a.page != b.page) {
+                return a.page < b.page ? -1 : 1;
+            }
+            return a.order < b.order ? -1 : (a.order == b.order ? 0 : 1);
+        }
+    };
+
+    private float color = Color.WHITE.toFloatBits();
+
+    // Metrics for the last Flush(): texture switches if we'd drawn in the order things were added, texture switches
+    // once sorted, and how many times the batch actually flushed while we were drawing
+    private int lastSprites;
+    private int lastSwitchesUnsorted;
+    private int lastSwitchesSorted;
+    private int lastRenderCalls;
+
+    // ...and totals since the queue was made
+    private int flushes;
+    private long totalSwitchesUnsorted;
+    private long totalSwitchesSorted;
+    private long totalRenderCalls;
+
+    void SetColor(float r, float g, float b, float a) {
+        color = Color.toFloatBits(r, g, b, a);
+    }
+
+    void Draw(int layer, TextureRegion region, float x, float y, float width, float height) {
+        Draw(layer, region, x, y, 0f, 0f, width, height, 1f, 1f, 0f);
+    }
+
+    void Draw(int layer, TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+              float scaleX, float scaleY, float rotation) {
+        if(region == null) {
+            return;
+        }
+
+        Command command = pool.obtain();
+        command.layer = layer;
+        command.page = PageOf(region.getTexture());
+        command.order = commands.size;
+        command.region = region;
+        command.x = x;
+        command.y = y;
+        command.originX = originX;
+        command.originY = originY;
+        command.width = width;
+        command.height = height;
+        command.scaleX = scaleX;
+        command.scaleY = scaleY;
+        command.rotation = rotation;
+        command.color = color;
+        commands.add(command);
+    }
+
+    private int PageOf(Texture texture) {
+        int page = pages.get(texture, -1);
+        if(page == -1) {
+            page = pages.size;
+            pages.put(texture, page);
+        }
+        return page;
+    }
+
+    // Draw everything that's been added, sorted, and empty the queue. Call between batch.begin() and batch.end(). The
+    // batch's color is left white.
+    void Flush(SpriteBatch batch) {
+        lastSprites = commands.size;
+        lastSwitchesUnsorted = CountSwitches();
+
+        commands.sort(byLayerThenPage);
+        lastSwitchesSorted = CountSwitches();
+
+        int renderCallsBefore = batch.renderCalls;
+
+        Command[] items = commands.items;
+        for(int a = 0; a < commands.size; a++) {
+            Command c = items[a];
+            batch.setColor(c.color);
+            batch.draw(c.region, c.x, c.y, c.originX, c.originY, c.width, c.height, c.scaleX, c.scaleY, c.rotation);
+        }
+        batch.setColor(Color.WHITE);
+
+        // Anything still sitting in the batch goes out with the next texture switch (or batch.end()); count it here
+        // so the numbers are just ours
+        batch.flush();
+        lastRenderCalls = batch.renderCalls - renderCallsBefore;
+
+        flushes++;
+        totalSwitchesUnsorted += lastSwitchesUnsorted;
+        totalSwitchesSorted += lastSwitchesSorted;
+        totalRenderCalls += lastRenderCalls;
+
+        for(int a = 0; a < commands.size; a++) {
+            items[a].region = null;
+        }
+        pool.freeAll(commands);
+        commands.clear();
+    }
+
+    // How many times the texture changes going down the queue as it is now (the first texture counts as one)
+    private int CountSwitches() {
+        int switches = 0;
+        int page = -1;
+        Command[] items = commands.items;
+        for(int a = 0; a < commands.size; a++) {
+            if(items[a].page != page) {
+                page = items[a].page;
+                switches++;
+            }
+        }
+        return switches;
+    }
+
+    int getLastSprites() { return this.lastSprites; }
+    int getLastSwitchesUnsorted() { return this.lastSwitchesUnsorted; }
+    int getLastSwitchesSorted() { return this.lastSwitchesSorted; }
+    int getLastRenderCalls() { return this.lastRenderCalls; }
+
+    @Override
+    public String toString() {
+        return lastSprites + " sprites, renderCalls " + lastSwitchesUnsorted + " unsorted -> " + lastSwitchesSorted
+                + " sorted (" + lastRenderCalls + " actual) last frame; "
+                + (flushes > 0 ? String.format("%.1f -> %.1f (%.1f actual)", (float) totalSwitchesUnsorted / flushes,
+                        (float) totalSwitchesSorted / flushes, (float) totalRenderCalls / flushes) : "none")
+                + " per frame over " + flushes + " frames";
+    }
+}
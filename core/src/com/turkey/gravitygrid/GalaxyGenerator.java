@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Builds whole galaxies (25 levels each) at once, one level per task, spread over a thread pool.
+ *
+ * Every level gets its own RNG seeded from the pack seed and the level number (see LevelSeed), and is built from
+ * start to finish by one task, so the levels come out exactly the same no matter how many threads there are or
+ * what order the tasks run in. Levels that turn out to be the same puzzle as a lower level in their galaxy get
+ * re-rolled afterwards, the same way LevelHandler does it. Each worker thread keeps its own BitboardLevelGenerator
+ * and LevelSolver (neither is thread safe, and both are expensive enough that we don't want one per level).
+ *
+ * Call shutdown() when you're done with it.
+ */
+
+public class GalaxyGenerator {
+
+    public static final int LEVELS_PER_GALAXY = 25;
+
+    private final long seed; // pack seed
+    private final int threads;
+    private final BitboardLevelGenerator.Strategy strategy;
+    private final ExecutorService executor;
+
+    private final ThreadLocal<BitboardLevelGenerator> generators = new ThreadLocal<BitboardLevelGenerator>() {
+        @Override
+        protected BitboardLevelGenerator initialValue() {
+            return BitboardLevelGenerator.create(strategy);
+        }
+    };
+
+    private final ThreadLocal<LevelSolver> solvers = new ThreadLocal<LevelSolver>() {
+        @Override
+        protected LevelSolver initialValue() {
+            return new LevelSolver();
+        }
+    };
+
+    public GalaxyGenerator(long seed) {
+        this(seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    public GalaxyGenerator(long seed, int threads) {
+        this(seed, threads, BitboardLevelGenerator.Strategy.RANDOM_MOVES);
+    }
+
+    // NOTE: The strategy is part of what makes a level. The same seed with a different strategy is a different pack.
+    public GalaxyGenerator(long seed, int threads, BitboardLevelGenerator.Strategy strategy) {
+        this.seed = seed;
+        this.strategy = strategy;
+        this.threads = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(this.threads, new ThreadFactory() {
+            private int count = 0;
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "GalaxyGenerator-" + (count++));
+                thread.setDaemon(true); // Don't keep the app alive if someone forgets to shutdown()
+                return thread;
+            }
+        });
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    // Returns the 25 levels of `galaxy` (galaxy 0 is levels 0-24). Tutorial levels come back as the tutorial level.
+    public int[][] generate(int galaxy) {
+        return generate(galaxy, 1)[0];
+    }
+
+    // Returns `count` galaxies starting at `firstGalaxy`, as [galaxy][level][53]. All the levels are queued at once so
+    // the threads stay busy even when one galaxy has a couple of slow levels.
+    public int[][][] generate(int firstGalaxy, int count) {
+
+        ArrayList<Future<int[]>> futures = new ArrayList<Future<int[]>>(count * LEVELS_PER_GALAXY);
+
+        for(int g = 0; g < count; g++) {
+            for(int a = 0; a < LEVELS_PER_GALAXY; a++) {
+                final int levelNum = ((firstGalaxy + g) * LEVELS_PER_GALAXY) + a;
+
+                futures.add(executor.submit(new Callable<int[]>() {
+                    @Override
+                    public int[] call() {
+                        return generateLevel(levelNum);
+                    }
+                }));
+            }
+        }
+
+        int[][][] galaxies = new int[count][LEVELS_PER_GALAXY][];
+
+        for(int i = 0; i < futures.size(); i++) {
+            try {
+                galaxies[i / LEVELS_PER_GALAXY][i % LEVELS_PER_GALAXY] = futures.get(i).get();
+            } catch(InterruptedException e) {
+                // Give up on the rest and let whoever interrupted us know
+                for(Future<int[]> future : futures) {
+                    future.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new GdxRuntimeException("Interrupted while generating galaxies", e);
+            } catch(ExecutionException e) {
+                throw new GdxRuntimeException("Couldn't generate level " + ((firstGalaxy * LEVELS_PER_GALAXY) + i), e.getCause());
+            }
+        }
+
+        // Now go back over each galaxy in order and re-roll any level that's the same puzzle as a lower one. This has to
+        // happen in order, so it's on this thread, but it's rare enough not to matter.
+        BitboardLevelGenerator generator = generators.get();
+        LevelSolver solver = solvers.get();
+        GenerationStats stats = new GenerationStats();
+        LevelIndex index = new LevelIndex(LEVELS_PER_GALAXY);
+
+        for(int g = 0; g < count; g++) {
+            index.clear();
+            for(int a = 0; a < LEVELS_PER_GALAXY; a++) {
+                int levelNum = ((firstGalaxy + g) * LEVELS_PER_GALAXY) + a;
+                galaxies[g][a] = LevelHandler.Deduplicate(galaxies[g][a], generator, solver, seed, levelNum, index, stats);
+            }
+        }
+
+        return galaxies;
+    }
+
+    // Builds a single level on the calling thread, before any duplicate checking (so this is what getLevel() gives you
+    // unless it's a copy of a lower level in the galaxy)
+    public int[] generateLevel(int levelNum) {
+        return LevelHandler.BuildLevel(generators.get(), solvers.get(), seed, levelNum);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
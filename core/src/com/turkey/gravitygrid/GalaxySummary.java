@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+/**
+ * Everything the level select screen needs to draw the 25 icons of one galaxy: each level's status, the moves the
+ * player beat it in, and its par. It's filled in once (when the screen opens, when we change galaxies, and when the
+ * player's progress changes) so drawing a frame doesn't have to touch the LevelHandler at all.
+ *
+ * Index 0 is the first level of the galaxy, same as LevelSelectScreen.LevelIcon.levelNum.
+ */
+
+final class GalaxySummary {
+
+    static final int LEVELS = GalaxyGenerator.LEVELS_PER_GALAXY;
+
+    final int[] status = new int[LEVELS];    // 0 = locked, 1 = playable, 2 = beat (LevelCompletionInfo.getStatus)
+    final int[] bestMoves = new int[LEVELS]; // Moves used the time it was beaten (LevelCompletionInfo.getBestMoves)
+    final int[] par = new int[LEVELS];       // The level's par, or 0 if it's still locked
+
+    // Totals for the whole galaxy, straight from the ProgressIndex
+    int completed;      // Levels beaten
+    int underPar;       // Levels beaten in par moves or less
+    int firstPlayable;  // Index of the lowest playable (not yet beaten) level, or -1
+
+    // The next galaxy is still being built (or read back in) on the pregenerate thread
+    boolean nextGalaxyBuilding;
+
+    private int galaxy = -1;
+    private int version = -1;
+    private int galaxiesVersion = -1;
+
+    int getGalaxy() { return this.galaxy; }
+
+    // True if this isn't a summary of `galaxy` as of the handler's latest progress (or the next galaxy has finished
+    // building since)
+    boolean IsStale(LevelHandler handler, int galaxy) {
+        return this.galaxy != galaxy || this.version != handler.getProgressVersion()
+                || this.galaxiesVersion != handler.getGalaxiesVersion();
+    }
+
+    void Build(LevelHandler handler, int galaxy) {
+
+        this.galaxy = galaxy;
+        this.version = handler.getProgressVersion();
+        this.galaxiesVersion = handler.getGalaxiesVersion();
+
+        // Both only look at what's in memory; if it's on disk from an earlier run, the pregenerator reads it in
+        nextGalaxyBuilding = !handler.IsGalaxyReady(galaxy + 1) && handler.IsGalaxyPregenerating(galaxy + 1);
+
+        int first = galaxy * LEVELS;
+        LevelCompletionInfo info = handler.getLevelCompletionInfo();
+        int known = info.size();
+
+        ProgressIndex index = info.getIndex();
+        completed = index.getCompleted(galaxy);
+        underPar = index.getUnderPar(galaxy);
+        firstPlayable = index.getFirstPlayable(galaxy) != -1 ? index.getFirstPlayable(galaxy) - first : -1;
+
+        for(int a = 0; a < LEVELS; a++) {
+            int levelNum = first + a;
+
+            if(levelNum >= known) {
+                status[a] = 0;
+                bestMoves[a] = 0;
+                par[a] = 0;
+                continue;
+            }
+
+            status[a] = info.getStatus(levelNum);
+            bestMoves[a] = info.getBestMoves(levelNum);
+
+            // Beaten levels have their par saved with them. Otherwise only look up levels the player can actually get
+            // to; asking for a locked one could mean generating it, and nobody needs the par of a level they can't see
+            // yet.
+            if(info.getPar(levelNum) > 0) {
+                par[a] = info.getPar(levelNum);
+            } else {
+                par[a] = status[a] != 0 ? handler.getLevel(levelNum)[52] : 0;
+            }
+        }
+    }
+
+    // Every level in the galaxy beaten
+    boolean IsComplete() {
+        return completed == LEVELS;
+    }
+
+    // Beaten at or under par (the gold checkmark)
+    boolean BeatUnderPar(int a) {
+        return status[a] == 2 && bestMoves[a] <= par[a];
+    }
+}
@@ -12,6 +12,10 @@ public final class GameOptions {
         playSound = 1;
     }
 
+    GameOptions(GameOptions other) {
+        playSound = other.playSound;
+    }
+
     public boolean playSounds() {
         return (playSound == 1 ? true : false);
     }
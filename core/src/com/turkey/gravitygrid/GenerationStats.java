@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+/**
+ * What happened during one call to LevelHandler.GenerateLevel(): how many times we asked the generator for a level,
+ * why the ones we threw away got thrown away, and whether we ended up giving the player the fallback level.
+ */
+
+public final class GenerationStats {
+
+    public int attempts;        // Calls to _GenerateLevel()
+    public int nullReturns;     // The generator ran out of places to move a planet
+    public int rejectedRed;     // Red target came out the same as where the reds start
+    public int rejectedBlue;    // Same for blue
+    public int rejectedGreen;   // Same for green
+    public long elapsedNanos;
+    public boolean usedFallback;
+
+    public void reset() {
+        attempts = 0;
+        nullReturns = 0;
+        rejectedRed = 0;
+        rejectedBlue = 0;
+        rejectedGreen = 0;
+        elapsedNanos = 0;
+        usedFallback = false;
+    }
+
+    @Override
+    public String toString() {
+        return attempts + " attempts in " + (elapsedNanos / 1000000) + "ms (null: " + nullReturns
+                + ", red: " + rejectedRed + ", blue: " + rejectedBlue + ", green: " + rejectedGreen + ")"
+                + (usedFallback ? ", used fallback level" : "");
+    }
+}
@@ -27,7 +27,6 @@ import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
 
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -35,6 +34,9 @@ public class GravityGrid extends Game {
 
 	private Preferences ini;
 
+	// Writes our save state in the background (see storeSaveState)
+	private SaveStateWriter saveStateWriter;
+
 	private boolean playSound;
 
 	private int highestLevelCompleted;
@@ -58,9 +60,15 @@ public class GravityGrid extends Game {
 		return gameOptions;
 	}
 
-	LevelHandler levelHandler;
+	// The one and only LevelHandler (levels + the player's progress). Everything goes through getLevelHandler(), which
+	// makes it the first time it's asked for; there must never be a second one, since two would each keep their own
+	// progress and both write to the same journal. Flushed in pause(), closed in dispose().
+	private LevelHandler levelHandler;
 
 	public LevelHandler getLevelHandler() {
+		if(levelHandler == null) {
+			levelHandler = new LevelHandler();
+		}
 		return levelHandler;
 	}
 
@@ -140,21 +148,6 @@ public class GravityGrid extends Game {
 			0,0,0,0,0,0,0,
 			*/
 
-	/* Board components. Helps differentiate between edges/corners and middle of board. */
-	public final int[] boardMiddle = new int[] { 36,37,38,39,40,29,30,31,32,33,22,23,24,25,26,15,16,17,18,19,8,9,10,11,12 };
-	public final int[] boardEdge = new int[] { 42,43,44,45,46,47,48,35,28,21,14,7,0,1,2,3,4,5,6,13,20,27,34,41 };
-
-	// IntArrayContains is used specifically for the above boardMiddle and boardEdge arrays and in the canMoveAccordingToLogic function
-	public boolean IntArrayContains(int[] list, int number) {
-
-		for(int i=0; i<list.length; i++) {
-			if(list[i] == number) {
-				return true;
-			}
-		}
-		return false;
-	}
-
 	/* Level messages. Displayed at the bottom of each grid for its associated level */
 	public List<String> levelMessage;
 
@@ -420,34 +413,12 @@ public class GravityGrid extends Game {
 	// <status,total_attempts,total_moves_attempted,moves_to_win,points_earned>
 	public void UpdateLevelCompletionInfo(int level, int status, int attempts, int moves, int points) {
 
-		getLevelHandler().getLevelCompletionInfo().levelData.get(level)[0] = status;
-		getLevelHandler().getLevelCompletionInfo().levelData.get(level)[1] += 1; // Add one attempt to this level
-		getLevelHandler().getLevelCompletionInfo().levelData.get(level)[2] += moves; // Total accrued moves this level for all attempts
+		// The actual bookkeeping lives in LevelCompletionInfo.Apply, so the journal can replay it on the next start
+		ProgressJournal.Event event = getLevelHandler().RecordProgress(level, status, moves, points);
+		saveStateWriter.Record(event);
 
-		// Check if we are marking this level as 1 ("complete"). If we are, then we'll record the moves given as the number of moves
-		// it took to beat this level. If not, we'll keep that at zero, since the level has not been marked complete yet.
 		if(status == 2) {
 			highestLevelCompleted = level;
-			getLevelHandler().getLevelCompletionInfo().levelData.get(level)[3] = moves; // Number moves used to beat the level during the playthrough where it was beaten
-			getLevelHandler().getLevelCompletionInfo().levelData.get(level)[4] = points; // Add the number of points we earned by beating this level
-
-			// Check if there's a level past this one. If there is, set its status as "1" (ready to play)
-			if(level+1 < getLevelHandler().getLevelCompletionInfo().levelData.size()) {
-				if (getLevelHandler().getLevelCompletionInfo().levelData.get(level + 1)[0] == 0) {
-
-					// Also mark the next level as ready to play ("1")
-					getLevelHandler().getLevelCompletionInfo().levelData.get(level + 1)[0] = 1;
-
-				}
-			} else {
-				// If we can't assign a current level to be level+1, then just keep the currentLevel at the maximum
-				// level that the game offers at this time. The currentLevel will also stay as the last level as well.
-				getLevelHandler().getLevelCompletionInfo().levelData.get(level)[0] = 1;
-			}
-
-		} else {
-			getLevelHandler().getLevelCompletionInfo().levelData.get(level)[3] = 0;
-			getLevelHandler().getLevelCompletionInfo().levelData.get(level)[4] = 0;
 		}
 
 		// We need to now loop through the levels backwards to find the most recent playable level. This will also
@@ -468,56 +439,31 @@ public class GravityGrid extends Game {
 			currentGalaxy = currentLevel / 25;
 		}
 
-
 		// Finally, save the new values to our preferences file
 		this.storeSaveState();
 	}
 
 	public void storeSaveState() {
 
-		// Create a hashtable to store our level (and level completion) data.
-		Hashtable<String, String> hashTable = new Hashtable<String, String>();
-
-		Json json = new Json();
-
-		// Here we are serializing our array
-		getLevelHandler().SaveLevelCompletionInfo();
-		hashTable.put("gameoptions", json.toJson(gameOptions));
-		hashTable.put("highestlevelcompleted", json.toJson(highestLevelCompleted));
-
-		// Store it in the preferences file
-		ini.put(hashTable);
-		ini.flush();
+		// Progress is already on its way to the journal (see UpdateLevelCompletionInfo). Copy the rest and hand it to the
+		// writer thread; the serializing and the disk happen over there, so this doesn't cost us a frame.
+		saveStateWriter.Save(new SaveStateWriter.SaveState(new GameOptions(gameOptions), highestLevelCompleted));
 	}
 
 	public void loadSaveState() {
 
 		Json json = new Json();
 
-		if(getLevelHandler().LoadLevelCompletionInfo()) {
+		// The level handler loaded our progress when it was made, so there's no need to read it again. The earliest
+		// playable level is kept up to date in its ProgressIndex, so no need to go looking for it either.
+		currentLevel = getLevelHandler().getLevelCompletionInfo().getIndex().getFirstPlayableLevel();
 
+		if(currentLevel == -1) {
+			// we didn't find the currentLevel, then we need to set it as the earliest possible locked level
+			// Loop through tiles?
+			// For now:
 			currentLevel = 0;
-
-			boolean setLevel = false;
-
-			// Compute currentlevel
-			computeCurrentLevel:
-			for(int i=0; i<getLevelHandler().getLevelCompletionInfo().levelData.size(); i++) {
-				// iterate through and find the earliest level where list[0] (status) is 1 (playable), then set that to our currentLevel.
-				if(getLevelHandler().getLevelCompletionInfo().levelData.get(i)[0] == 1){
-					currentLevel = i;
-					setLevel = true;
-					break computeCurrentLevel;
-				}
-			}
-
-			if(setLevel == false) {
-				// we iterated through every single one and still didnt find the currentLevel, then we need to set it as the earliest possible locked level
-				// Loop through tiles?
-				// For now:
-				currentLevel = 0;
-				getLevelHandler().getLevelCompletionInfo().levelData.get(0)[0] = 1; // hard set the first one. This would only be called if this is a new game
-			}
+			getLevelHandler().getLevelCompletionInfo().setStatus(0, 1); // hard set the first one. This would only be called if this is a new game
 		}
 
 		// Finally, compute current galaxy
@@ -557,7 +503,7 @@ public class GravityGrid extends Game {
 	}
 
 	public boolean playerHasBeatenHighestLevel() {
-		if(highestLevelCompleted == getLevelHandler().getLevelCompletionInfo().levelData.size()-1) {
+		if(highestLevelCompleted == getLevelHandler().getLevelCompletionInfo().size()-1) {
 			return true;
 		} else {return false;}
 	}
@@ -572,8 +518,6 @@ public class GravityGrid extends Game {
 
 		gameOptions = new GameOptions();
 
-		levelHandler = new LevelHandler();
-
 		levelMessage = new ArrayList<String>();
 		levelMessage.add("");
 		levelMessage.add("");
@@ -663,7 +607,7 @@ public class GravityGrid extends Game {
 		levelsWithTutorialOverlays[0] = 1;	// level1TutorialOverlay.png on level 1
 		levelsWithTutorialOverlays[1] = 1;	// level2TutorialOverlay.png on level 2
 		levelsWithTutorialOverlays[6] = 1;  // level7TutorialOverlay.png on level 7
-		levelsWithTutorialOverlays[51] = 1;  // level7TutorialOverlay.png on level 7
+		levelsWithTutorialOverlays[50] = 1;  // level51TutorialOverlay.png on level 51
 
 		fingerOnScreen = false;
 
@@ -677,6 +621,13 @@ public class GravityGrid extends Game {
 		// Load the saveState OR populate default values if this is a new install
 		this.loadSaveState();
 
+		// The writer takes its own copy of our progress, so it has to come after loadSaveState(), which can still
+		// change it (unlocking level 1 on a new install)
+		saveStateWriter = new SaveStateWriter(getLevelHandler(), ini);
+
+		// Get the galaxies the player is about to need building (or loaded from last time) in the background
+		getLevelHandler().PregenerateAhead();
+
 		batch = new SpriteBatch(); // Initialize our spritebatch used to draw everything in the world
 
 		// Head to our InitialLoading screen, which loads all our assets
@@ -684,21 +635,37 @@ public class GravityGrid extends Game {
 	}
 
 	public void render() {
+		assets.Update(); // Atlases loading in the background (see AssetLoader.RequireLater())
 		super.render(); // important!
 	}
 
 	public void resume() {
-
+		super.resume(); // Pass it on to the screen (PlayingScreen has to redraw its StaticLayer after losing the GL context)
 	}
 
 	public void pause() {
+		super.pause();
+
 		// In the app lifecycle, this function is called both when the app loses focus AND right before the application closes, so it makes sense to store our save state here. 
 
 		this.storeSaveState();
 
+		// We might not get another chance, so don't leave it to the writer thread
+		saveStateWriter.FlushNow();
+		Gdx.app.debug("GravityGrid", "Saves: " + saveStateWriter);
+		Gdx.app.debug("GravityGrid", "Level cache: " + getLevelHandler().getLevelCacheHits() + " hits, "
+				+ getLevelHandler().getLevelCacheMisses() + " misses, " + getLevelHandler().getLevelsPrefetched() + " prefetched");
 	}
 
 	public void dispose() {
+		saveStateWriter.Close();
+		if(getScreen() != null) {
+			getScreen().dispose(); // LevelSelectScreen takes the PlayingScreen with it
+		}
+		if(levelHandler != null) {
+			levelHandler.Dispose();
+			levelHandler = null;
+		}
 		batch.dispose();
 		//regularFont.dispose();
 		this.assets.dispose();
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+/**
+ * Spots levels that are really the same puzzle.
+ *
+ * The tile values are the same if you rotate the board or flip it, and so are the red/blue/green rules (diagonal is
+ * still diagonal, and so on). So a level and its 8 rotations/reflections all play exactly the same. The canonical
+ * form is whichever of those 8 boards comes first when you compare tiles 0-48 in order; the targets and par don't
+ * move. Two levels are the same puzzle if their canonical forms match, and hash() gives a 64-bit hash of the
+ * canonical form that's cheap to stick in a LevelIndex.
+ */
+
+public final class LevelCanonicalizer {
+
+    public static final int SYMMETRIES = 8;
+
+    // SOURCE[s][t] is the tile that ends up at tile t under symmetry s (s = 0 is "leave it alone")
+    private static final int[][] SOURCE = new int[SYMMETRIES][Bitboard.TILES];
+
+    static {
+        for(int s = 0; s < SYMMETRIES; s++) {
+            for(int tile = 0; tile < Bitboard.TILES; tile++) {
+                int row = tile / 7;
+                int col = tile % 7;
+
+                // Rotate by 90 degrees s%4 times, then flip left-right if s >= 4
+                for(int r = 0; r < (s % 4); r++) {
+                    int newRow = col;
+                    int newCol = 6 - row;
+                    row = newRow;
+                    col = newCol;
+                }
+                if(s >= 4) {
+                    col = 6 - col;
+                }
+
+                SOURCE[s][(row * 7) + col] = tile;
+            }
+        }
+    }
+
+    private LevelCanonicalizer() {
+    }
+
+    // Which of the 8 symmetries gives the canonical form of `level`
+    public static int canonicalSymmetry(int[] level) {
+        int best = 0;
+
+        for(int s = 1; s < SYMMETRIES; s++) {
+            for(int t = 0; t < Bitboard.TILES; t++) {
+                int candidate = level[SOURCE[s][t]];
+                int current = level[SOURCE[best][t]];
+                if(candidate != current) {
+                    if(candidate < current) {
+                        best = s;
+                    }
+                    break;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    // A new level array in canonical form
+    public static int[] canonicalize(int[] level) {
+        int s = canonicalSymmetry(level);
+        int[] canonical = level.clone();
+
+        for(int t = 0; t < Bitboard.TILES; t++) {
+            canonical[t] = level[SOURCE[s][t]];
+        }
+
+        return canonical;
+    }
+
+    // 64-bit hash of the canonical form of the board and the three targets. Par isn't included since the same puzzle
+    // always has the same par. Never returns 0 (LevelIndex uses 0 for empty slots).
+    public static long hash(int[] level) {
+        int s = canonicalSymmetry(level);
+
+        // FNV-1a over the canonical tiles, then a final mix so similar boards don't land in neighbouring slots
+        long hash = 0xcbf29ce484222325L;
+        for(int t = 0; t < Bitboard.TILES; t++) {
+            hash = (hash ^ level[SOURCE[s][t]]) * 0x100000001b3L;
+        }
+        for(int a = 49; a <= 51; a++) {
+            hash = (hash ^ level[a]) * 0x100000001b3L;
+        }
+
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash != 0 ? hash : 1;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The player's progress on every level they've reached, one slot per level:
+ *
+ *   status      0 = locked, 1 = playable, 2 = beat
+ *   attempts    how many times they've finished it (won or lost)
+ *   totalMoves  moves made on it over all of those attempts
+ *   bestMoves   moves used the time it was beaten (0 if it hasn't been)
+ *   points      points earned for beating it
+ *   par         the level's par when it was beaten (0 if we don't know; saves from before we kept track)
+ *
+ * It also keeps a ProgressIndex (per-galaxy totals) up to date with every change.
+ *
+ * These used to be an ArrayList of little int[5] arrays (levelData), serialized with Json. Now each column is one
+ * primitive array that grows like an ArrayList does, and it saves as a flat block of bytes.
+ */
+
+final class LevelCompletionInfo {
+
+    private byte[] status;
+    private int[] attempts;
+    private int[] totalMoves;
+    private int[] bestMoves;
+    private int[] points;
+    private int[] par;
+    private int size;
+
+    private ProgressIndex index = new ProgressIndex();
+
+    LevelCompletionInfo() {
+        this(100);
+    }
+
+    LevelCompletionInfo(int capacity) {
+        status = new byte[capacity];
+        attempts = new int[capacity];
+        totalMoves = new int[capacity];
+        bestMoves = new int[capacity];
+        points = new int[capacity];
+        par = new int[capacity];
+    }
+
+    // How many levels we have progress for (everything from level 0 up to the last one the player has reached)
+    int size() { return this.size; }
+
+    int getStatus(int level) { return status[check(level)]; }
+    int getAttempts(int level) { return attempts[check(level)]; }
+    int getTotalMoves(int level) { return totalMoves[check(level)]; }
+    int getBestMoves(int level) { return bestMoves[check(level)]; }
+    int getPoints(int level) { return points[check(level)]; }
+    int getPar(int level) { return par[check(level)]; }
+
+    ProgressIndex getIndex() { return this.index; }
+
+    // Beaten in par moves or less
+    boolean IsUnderPar(int level) {
+        return status[check(level)] == 2 && par[level] > 0 && bestMoves[level] <= par[level];
+    }
+
+    void setStatus(int level, int newStatus) {
+        index.Forget(this, check(level));
+        status[level] = (byte) newStatus;
+        index.Count(this, level);
+    }
+
+    // Adds `count` locked levels to the end
+    void AddLevels(int count) {
+        int newSize = size + count;
+
+        if(newSize > status.length) {
+            int capacity = Math.max(newSize, status.length + (status.length >> 1) + 1);
+            status = Arrays.copyOf(status, capacity);
+            attempts = Arrays.copyOf(attempts, capacity);
+            totalMoves = Arrays.copyOf(totalMoves, capacity);
+            bestMoves = Arrays.copyOf(bestMoves, capacity);
+            points = Arrays.copyOf(points, capacity);
+            par = Arrays.copyOf(par, capacity);
+        }
+
+        // Slots past `size` can have junk in them from before a Read(), so zero them
+        for(int a = size; a < newSize; a++) {
+            status[a] = 0;
+            attempts[a] = 0;
+            totalMoves[a] = 0;
+            bestMoves[a] = 0;
+            points[a] = 0;
+            par[a] = 0;
+        }
+
+        size = newSize;
+        index.Grow(size);
+    }
+
+    // One win (status 2) or loss for event.level. This is the only place progress gets changed, so replaying the
+    // journal always ends up in the same place the game did.
+    void Apply(ProgressJournal.Event event) {
+
+        // Levels get added as the player reaches them; make sure the ones that were there at the time are here
+        if(size < event.size) {
+            AddLevels(event.size - size);
+        }
+
+        int level = event.level;
+        boolean hasNext = level+1 < size;
+
+        index.Forget(this, level);
+        if(hasNext) {
+            index.Forget(this, level + 1);
+        }
+
+        status[level] = (byte) event.status;
+        attempts[level] += 1; // Add one attempt to this level
+        totalMoves[level] += event.moves; // Total accrued moves this level for all attempts
+
+        // Check if we are marking this level as 1 ("complete"). If we are, then we'll record the moves given as the number of moves
+        // it took to beat this level. If not, we'll keep that at zero, since the level has not been marked complete yet.
+        if(event.status == 2) {
+            bestMoves[level] = event.moves; // Number moves used to beat the level during the playthrough where it was beaten
+            points[level] = event.points; // Add the number of points we earned by beating this level
+            par[level] = event.par;
+
+            // Check if there's a level past this one. If there is, set its status as "1" (ready to play)
+            if(hasNext) {
+                if(status[level + 1] == 0) {
+
+                    // Also mark the next level as ready to play ("1")
+                    status[level + 1] = 1;
+
+                }
+            } else {
+                // If we can't assign a current level to be level+1, then just keep the currentLevel at the maximum
+                // level that the game offers at this time. The currentLevel will also stay as the last level as well.
+                status[level] = 1;
+            }
+
+        } else {
+            bestMoves[level] = 0;
+            points[level] = 0;
+        }
+
+        index.Count(this, level);
+        if(hasNext) {
+            index.Count(this, level + 1);
+        }
+    }
+
+    LevelCompletionInfo Copy() {
+        LevelCompletionInfo copy = new LevelCompletionInfo(Math.max(size, 1));
+        System.arraycopy(status, 0, copy.status, 0, size);
+        System.arraycopy(attempts, 0, copy.attempts, 0, size);
+        System.arraycopy(totalMoves, 0, copy.totalMoves, 0, size);
+        System.arraycopy(bestMoves, 0, copy.bestMoves, 0, size);
+        System.arraycopy(points, 0, copy.points, 0, size);
+        System.arraycopy(par, 0, copy.par, 0, size);
+        copy.size = size;
+        copy.index = index.Copy();
+        return copy;
+    }
+
+    // Binary form: int size, then `size` status bytes, then each int column in turn (big endian), then the
+    // ProgressIndex
+    void Write(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        out.write(status, 0, size);
+        WriteColumn(out, attempts);
+        WriteColumn(out, totalMoves);
+        WriteColumn(out, bestMoves);
+        WriteColumn(out, points);
+        WriteColumn(out, par);
+        index.Write(out);
+    }
+
+    private void WriteColumn(DataOutputStream out, int[] column) throws IOException {
+        for(int a = 0; a < size; a++) {
+            out.writeInt(column[a]);
+        }
+    }
+
+    // Reads what Write() wrote, starting at the buffer's position. Version 1 snapshots didn't have par or the index.
+    static LevelCompletionInfo Read(ByteBuffer buffer, int version) {
+        int columns = version >= 2 ? 5 : 4;
+
+        int size = buffer.getInt();
+        if(size < 0 || buffer.remaining() < size + (size * 4 * columns)) {
+            throw new GdxRuntimeException("Level completion info is the wrong size");
+        }
+
+        LevelCompletionInfo info = new LevelCompletionInfo(Math.max(size, 1));
+        buffer.get(info.status, 0, size);
+        buffer.asIntBuffer().get(info.attempts, 0, size);
+        buffer.position(buffer.position() + (size * 4));
+        buffer.asIntBuffer().get(info.totalMoves, 0, size);
+        buffer.position(buffer.position() + (size * 4));
+        buffer.asIntBuffer().get(info.bestMoves, 0, size);
+        buffer.position(buffer.position() + (size * 4));
+        buffer.asIntBuffer().get(info.points, 0, size);
+        buffer.position(buffer.position() + (size * 4));
+        info.size = size;
+
+        if(version >= 2) {
+            buffer.asIntBuffer().get(info.par, 0, size);
+            buffer.position(buffer.position() + (size * 4));
+            info.index.Read(buffer);
+        } else {
+            info.index.Rebuild(info);
+        }
+
+        return info;
+    }
+
+    // Reads the old Json form: {levelData:[[status,attempts,totalMoves,bestMoves,points],...]}. Only used to move old
+    // saves over to the binary one.
+    static LevelCompletionInfo FromJson(String serialized) {
+        JsonValue levelData = new JsonReader().parse(serialized).get("levelData");
+
+        LevelCompletionInfo info = new LevelCompletionInfo(levelData != null ? Math.max(levelData.size, 1) : 1);
+        if(levelData == null) {
+            return info;
+        }
+
+        info.AddLevels(levelData.size);
+
+        int a = 0;
+        for(JsonValue entry = levelData.child; entry != null; entry = entry.next, a++) {
+            // Some of these were written 6 wide (see the old ChangeToGalaxy), so only go by the first 5
+            int[] values = entry.asIntArray();
+            if(values.length > 0) { info.status[a] = (byte) values[0]; }
+            if(values.length > 1) { info.attempts[a] = values[1]; }
+            if(values.length > 2) { info.totalMoves[a] = values[2]; }
+            if(values.length > 3) { info.bestMoves[a] = values[3]; }
+            if(values.length > 4) { info.points[a] = values[4]; }
+        }
+
+        // Old saves don't have pars, so nothing counts as under par until it gets beaten again
+        info.index.Rebuild(info);
+
+        return info;
+    }
+
+    private int check(int level) {
+        if(level < 0 || level >= size) {
+            throw new IndexOutOfBoundsException("Level " + level + ", size " + size);
+        }
+        return level;
+    }
+}
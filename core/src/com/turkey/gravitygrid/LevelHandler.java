@@ -6,11 +6,24 @@ package com.turkey.gravitygrid;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Json;
 
-import java.util.ArrayList;
-import java.util.Hashtable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Created by lawsonje on 12/8/2016.
@@ -21,43 +34,165 @@ import java.util.Hashtable;
 
 final class LevelHandler {
 
-    private LevelGenerator levelGenerator;
+    // It doesn't allocate per level, so we keep one around for the life of the handler.
+    private BitboardLevelGenerator levelGenerator = new BitboardLevelGenerator();
+
+    // Works out the real par for each generated level
+    private LevelSolver levelSolver = new LevelSolver();
+
+    // Give up on a level after this many tries. It's a count and not a time limit, so a slow phone gives up in exactly
+    // the same place as a fast desktop and still ends up with the same level.
+    static final int MAX_GENERATE_ATTEMPTS = 2000;
+
+    // What we hand out when the generator can't come up with anything, even with LevelParameters.Playable(): a smiley face made of red planets, with the
+    // left side of the mouth pulled up into the nose. Move the nose back down to finish it (par 1).
+    //
+    //   . . . . . . .
+    //   . . R . R . .
+    //   . . . . . . .
+    //   . . . R . . .
+    //   . R . . . R .
+    //   . . . R R . .
+    //   . . . . . . .
+    static final int[] FALLBACK_LEVEL = new int[]{0,0,0,0,0,0,0,0,0,0,1,1,0,0,0,1,0,0,0,1,0,0,0,0,1,0,0,0,0,0,0,0,0,0,0,0,0,1,0,1,0,0,0,0,0,0,0,0,0,30,0,0,1};
+
+    // How many times we'll re-roll a level that's the same puzzle as an earlier one in its galaxy
+    static final int MAX_DUPLICATE_RETRIES = 8;
+
+    // The galaxy we're working in: canonical hashes of its levels (so we can spot duplicates) and the levels
+    // themselves, filled in from the first level up
+    private int indexedGalaxy = -1;
+    private final LevelIndex galaxyIndex = new LevelIndex(GalaxyGenerator.LEVELS_PER_GALAXY);
+    private final int[][] galaxyLevels = new int[GalaxyGenerator.LEVELS_PER_GALAXY][];
+
+    // Levels we've already decoded/built, most recently used last. getLevel() is called a lot (every tile of the level
+    // select screen, every frame), so it should almost always come out of here.
+    static final int LEVEL_CACHE_SIZE = 64;
+    private final LinkedHashMap<Integer, int[]> levelCache = new LinkedHashMap<Integer, int[]>(LEVEL_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+            return size() > LEVEL_CACHE_SIZE;
+        }
+    };
+    private int levelCacheHits;
+    private int levelCacheMisses;
+
+    public int getLevelCacheHits() { synchronized(levelLock) { return this.levelCacheHits; } }
+    public int getLevelCacheMisses() { synchronized(levelLock) { return this.levelCacheMisses; } }
+
+    // The level cache, the current galaxy's levels, and the generator/solver get used from the background threads too
+    // (see PrefetchLevel and PregenerateGalaxy), so all of them are guarded by this. The background threads only take
+    // it to look and to publish what they built; never while they're building.
+    private final Object levelLock = new Object();
+    private int levelsPrefetched;
+
+    // Prefetching the next level gets a thread of its own, so it never waits behind a whole galaxy being pregenerated
+    private ExecutorService prefetchExecutor;
+    private ExecutorService pregenerateExecutor;
+
+    // The prefetcher's own generator and solver, only touched on the prefetch thread
+    private BitboardLevelGenerator prefetchGenerator;
+    private LevelSolver prefetchSolver;
+
+    public int getLevelsPrefetched() { synchronized(levelLock) { return this.levelsPrefetched; } }
+
+    // Start building the next galaxy in the background once the player is this many levels from the end of the
+    // current one (see PregenerateGalaxy)
+    static final int PREGENERATE_LEVELS_LEFT = 5;
+    static final String GALAXY_PACK_DIR = "galaxies";
+
+    // Galaxies the pregenerator has finished (galaxy number -> its levels) or is working on. Guarded by levelLock.
+    private final HashMap<Integer, LevelPack> galaxyPacks = new HashMap<Integer, LevelPack>();
+    private final HashSet<Integer> galaxiesPregenerating = new HashSet<Integer>();
+
+    // The pregenerator's own generator and solver, only touched on the pregenerate thread
+    private BitboardLevelGenerator pregenerateGenerator;
+    private LevelSolver pregenerateSolver;
+
+    // How the last level this handler generated went
+    private final GenerationStats generationStats = new GenerationStats();
+
+    public GenerationStats getLastGenerationStats() { return this.generationStats; }
 
     private LevelCompletionInfo levelCompletionInfo;
 
     public LevelCompletionInfo getLevelCompletionInfo() { return this.levelCompletionInfo; }
 
-    static class LevelCompletionInfo {
-        LevelCompletionInfo() {
-            levelData = new ArrayList<int[]>();
-        }
-        ArrayList<int[]> levelData;
-    }
+    // Every win/loss goes in here (see ProgressJournal); `journalSequence` is the number of the last one. The
+    // snapshot file holds all of levelCompletionInfo as of some sequence number.
+    static final String SNAPSHOT_FILE = "progress.snapshot";
+    static final int SNAPSHOT_MAGIC = 0x47475053; // "GGPS"
+    static final int SNAPSHOT_VERSION = 2;
+    private ProgressJournal journal;
+    private FileHandle snapshotFile;
+    private int journalSequence;
+
+    public int getJournalSequence() { return this.journalSequence; }
+
+    // Bumped every time the player's progress (levelCompletionInfo) changes, so anything built from it (like the
+    // level select screen's GalaxySummary) can tell it's out of date without comparing the whole thing
+    private int progressVersion;
+
+    public int getProgressVersion() { return this.progressVersion; }
+
+    void ProgressChanged() { progressVersion++; }
+
+    // Same idea for the galaxies: bumped whenever one starts or finishes pregenerating, which is when IsGalaxyReady()
+    // and IsGalaxyPregenerating() can change their answer. The pregenerate thread bumps it too, hence volatile.
+    private volatile int galaxiesVersion;
+
+    public int getGalaxiesVersion() { return this.galaxiesVersion; }
 
     Preferences levels;
 
+    // Prebuilt levels shipped with the game (android/assets/levels.pack), if there are any. See LevelPack.
+    static final String LEVEL_PACK = "levels.pack";
+    private LevelPack levelPack;
+
+    // Every generated level is rebuilt from this (see LevelSeed), so it's the only thing we have to save about them
+    private long packSeed;
+
+    public long getPackSeed() { return this.packSeed; }
+
     LevelHandler() {
 
         // Load our levels via preferences file
         levels = Gdx.app.getPreferences("levels");
+        journal = new ProgressJournal(Gdx.files.local(ProgressJournal.FILE));
+        snapshotFile = Gdx.files.local(SNAPSHOT_FILE);
+
+        // Prebuilt levels take priority over generating them here
+        FileHandle packFile = Gdx.files.internal(LEVEL_PACK);
+        if(packFile.exists()) {
+            try {
+                levelPack = LevelPack.open(packFile);
+            } catch(GdxRuntimeException e) {
+                // A broken pack isn't the end of the world, we can still make levels ourselves
+                Gdx.app.error("LevelHandler", "Couldn't open " + LEVEL_PACK, e);
+                levelPack = null;
+            }
+        }
 
-        // If levels is empty, then we should probably cry
-        this.levelCompletionInfo = new LevelCompletionInfo();
+        // Pick a pack seed the first time we run and keep it forever after
+        if(levels.contains("packseed")) {
+            packSeed = levels.getLong("packseed");
+        } else {
+            packSeed = MathUtils.random.nextLong();
+            levels.putLong("packseed", packSeed);
+            levels.flush();
+        }
 
-        if(!LoadLevelCompletionInfo() || this.levelCompletionInfo.levelData.size() < 25) {
-            // We need at least 25 elements for the first galaxy
+        // If levels is empty, then we should probably cry
+        if(!LoadLevelCompletionInfo()) {
 
-            // If we're here, then the levelcompletioninfo string in the "levels" file cannot be found. This would only be the case if this is our first time playing this game
+            // If we're here, then there's no saved level completion info. This would only be the case if this is our first time playing this game
             // So we need to build the level completion info, store it, then get on with our lives.
+            this.levelCompletionInfo = NewInstallProgress();
+        }
 
-            int[] temp = new int[]{1,0,0,0,0}; // First one on a new install should be "1" status
-            this.levelCompletionInfo.levelData.add(temp); // First level
-
-            // After charging the levelData with the first level as status "1", make the rest of the galaxy available
-            for(int a=1; a<25; a++) {
-                int[] tmp = new int[]{0,0,0,0,0};
-                this.levelCompletionInfo.levelData.add(tmp); // First level
-            }
+        if(this.levelCompletionInfo.size() < 25) {
+            // We need at least 25 elements for the first galaxy
+            this.levelCompletionInfo.AddLevels(25 - this.levelCompletionInfo.size());
 
             // since this is our first data, let's store it
             SaveLevelCompletionInfo();
@@ -69,208 +204,692 @@ final class LevelHandler {
 
 
     public int[] GenerateLevel(int a, int b, int c, int d, boolean e, boolean f) {
+        synchronized(levelLock) {
+            return GenerateLevel(levelGenerator, levelSolver, new LevelParameters(a, b, c, d, e, f), generationStats);
+        }
+    }
 
-        int[] level = null;
+    static int[] GenerateLevel(BitboardLevelGenerator levelGenerator, LevelSolver levelSolver, LevelParameters p) {
+        return GenerateLevel(levelGenerator, levelSolver, p, new GenerationStats());
+    }
 
-        levelGenerator = new LevelGenerator();
+    // Doesn't touch Gdx or the preferences file, so the GalaxyGenerator can call this from worker threads (as long as
+    // every thread has its own generator and solver). `stats` is reset and filled in with what happened. Pass a null
+    // solver to keep the generator's par.
+    static int[] GenerateLevel(BitboardLevelGenerator levelGenerator, LevelSolver levelSolver, LevelParameters p, GenerationStats stats) {
+
+        int[] level = null;
 
         boolean goodResult = false;
 
-        // TODO: If you can't build a good level in like 10 tries, then return a default level that looks like a smiley face
+        stats.reset();
+        long start = System.nanoTime();
+
+        // Some parameter combos can never work (e.g. a single red planet has nowhere legal to go), so don't keep
+        // trying forever
         while(!goodResult) {
-            int tmp[][] = levelGenerator._GenerateLevel(a, b, c, d, e, f);
 
-            if(tmp[0][0] == tmp[0][1] && tmp[0][0] > 0){
+            if(stats.attempts >= MAX_GENERATE_ATTEMPTS) {
+                // If you can't build a good level, then return a default level that looks like a smiley face
+                level = FALLBACK_LEVEL.clone();
+                stats.usedFallback = true;
+                break;
+            }
 
-            } else if(tmp[0][2] == tmp[0][3] && tmp[0][2] > 0) {
+            stats.attempts++;
 
-            } else if(tmp[0][4] == tmp[0][5] && tmp[0][4] > 0) {
+            int tmp[][] = levelGenerator._GenerateLevel(p.complexity, p.redWeight, p.blueWeight, p.greenWeight, p.genAsteroids, p.genSuns);
 
+            if(tmp == null) {
+                // The generator painted itself into a corner (no possible destinations), so just try again
+                stats.nullReturns++;
+            } else if(tmp[0][0] == tmp[0][1] && tmp[0][0] > 0){
+                stats.rejectedRed++;
+            } else if(tmp[0][2] == tmp[0][3] && tmp[0][2] > 0) {
+                stats.rejectedBlue++;
+            } else if(tmp[0][4] == tmp[0][5] && tmp[0][4] > 0) {
+                stats.rejectedGreen++;
             } else {
                 goodResult = true;
                 //level = new int[52];
                 level = tmp[1].clone();
+
+                // The generator's par is just how many random moves it made. Ask the solver for the real minimum;
+                // if it gives up we keep the generator's number, which is still a valid (if generous) par.
+                int par = levelSolver != null ? levelSolver.solve(level) : LevelSolver.UNSOLVED;
+                if(par > 0) {
+                    level[52] = par;
+                }
                 //System.out.println("Generated OK level "+a+": ("+tmp[0]+"/"+tmp[1]+"), ("+tmp[2]+"/"+tmp[3]+"), "+tmp[4]+"/"+tmp[5]+")");
             }
             //System.out.println("("+tmp[0]+"/"+tmp[1]+") ("+tmp[2]+"/"+tmp[3]+") ("+tmp[4]+"/"+tmp[5]+")");
         }
 
+        stats.elapsedNanos = System.nanoTime() - start;
+
         return level;
     }
 
+    // Builds generated level levelNum of the pack with `packSeed`. Tutorial levels come back as the tutorial level.
+    static int[] BuildLevel(BitboardLevelGenerator levelGenerator, LevelSolver levelSolver, long packSeed, int levelNum) {
+        return BuildLevel(levelGenerator, levelSolver, packSeed, levelNum, new GenerationStats());
+    }
+
+    static int[] BuildLevel(BitboardLevelGenerator levelGenerator, LevelSolver levelSolver, long packSeed, int levelNum, GenerationStats stats) {
+        return BuildLevel(levelGenerator, levelSolver, packSeed, levelNum, 0, stats);
+    }
 
+    // `retry` picks a different seed for the same level number; 0 is the normal one
+    static int[] BuildLevel(BitboardLevelGenerator levelGenerator, LevelSolver levelSolver, long packSeed, int levelNum, int retry, GenerationStats stats) {
 
-    int[] getLevel(int levelNum) {
+        int[] tutorial = getTutorialLevel(levelNum);
+        if(tutorial != null) {
+            stats.reset();
+            return tutorial;
+        }
 
-        int[] level;
+        // The parameters and the generator have to share one RNG, and in this order, or we get a different level
+        Random random = LevelSeed.randomFor(packSeed, levelNum, retry);
+        LevelParameters parameters = LevelParameters.forLevel(levelNum, random);
 
-        // If this is a tutorial level, return the tutorial level.
-        // Add any and all tutorial levels right here!
+        levelGenerator.setRandom(random);
+
+        int[] level = GenerateLevel(levelGenerator, levelSolver, parameters, stats);
+
+        if(stats.usedFallback) {
+            // These parameters can't make a level. Try the nearest ones that can, carrying on with the same RNG so
+            // it's still the same level everywhere.
+            level = GenerateLevel(levelGenerator, levelSolver, parameters.Playable(), stats);
+        }
+
+        return level;
+    }
+
+    // If `level` is the same puzzle as one already in `earlier` (the lower levels of its galaxy), re-roll it with the
+    // next retry seed until it isn't, then add it to `earlier`. Only looking at lower levels means level N never
+    // depends on anything above it, so GalaxyGenerator and getLevel() always agree. Tutorials are never re-rolled.
+    static int[] Deduplicate(int[] level, BitboardLevelGenerator levelGenerator, LevelSolver levelSolver, long packSeed, int levelNum, LevelIndex earlier, GenerationStats stats) {
+
+        long hash = LevelCanonicalizer.hash(level);
+
+        if(getTutorialLevel(levelNum) == null) {
+            // Give up after a few; the fallback level is always a duplicate of itself, for one
+            for(int retry = 1; retry <= MAX_DUPLICATE_RETRIES && earlier.contains(hash); retry++) {
+                level = BuildLevel(levelGenerator, levelSolver, packSeed, levelNum, retry, stats);
+                hash = LevelCanonicalizer.hash(level);
+            }
+        }
+
+        earlier.put(hash, levelNum);
+
+        return level;
+    }
+
+    // Returns the hand-made level for levelNum, or null if levelNum isn't a tutorial level.
+    // Add any and all tutorial levels right here!
+    static int[] getTutorialLevel(int levelNum) {
         switch(levelNum) {
             case 0: // Level 1
-                level = new int[]{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,1,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,1,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,16,0,0,1}; // Level 1
-                break;
+                return new int[]{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,1,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,1,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,16,0,0,1}; // Level 1
             case 1: // Level 2
-                level = new int[]{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,1,0,0,0,0,0,0,0,1,0,0,0,0,1,0,0,1,0,0,0,0,0,1,0,0,0,0,0,1,0,0,0,0,32,0,0,2}; // Level 2
-                break;
+                return new int[]{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,1,0,0,0,0,0,0,0,1,0,0,0,0,1,0,0,1,0,0,0,0,0,1,0,0,0,0,0,1,0,0,0,0,32,0,0,2}; // Level 2
             case 6: // Level 7
-                level = new int[]{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,2,0,0,0,0,0,0,2,2,0,4,0,1}; // Level 7
-                break;
+                return new int[]{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,2,0,0,0,0,0,0,2,2,0,4,0,1}; // Level 7
             case 50: // Level 51
-                level = new int[]{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,3,0,0,0,0,0,0,0,0,0,0,0,0,0,3,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,3,0,0,0,8,1}; // Level 51
-                break;
+                return new int[]{0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,3,0,0,0,0,0,0,0,0,0,0,0,0,0,3,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,3,0,0,0,8,1}; // Level 51
             default:
-                level = CreateOrRetrieveLevel(levelNum);
-                break;
+                return null;
         }
+    }
+
+    // The level array for levelNum. This is the cached copy, so read it but don't change it (CreateOrRetrieveLevel
+    // gives you one of your own). Render thread only, since it touches levelCompletionInfo.
+    int[] getLevel(int levelNum) {
+
+        // Make sure we create an entry for levelCompletionInfo as well
+        if(levelNum+1 == getLevelCompletionInfo().size()) {
+            // So if we were asking for level 5, and size() was 6, we could return level 5's info but
+            // we would still need to generate the next levelcompletion info. So let's build it here.
+            getLevelCompletionInfo().AddLevels(1);
+        }
+
+        synchronized(levelLock) {
+            return CachedLevel(levelNum);
+        }
+    }
+
+    // Call with levelLock held
+    private int[] CachedLevel(int levelNum) {
+
+        int[] level = levelCache.get(levelNum);
+
+        if(level != null) {
+            levelCacheHits++;
+            return level;
+        }
+
+        levelCacheMisses++;
+
+        // If this is a tutorial level, return the tutorial level.
+        level = getTutorialLevel(levelNum);
+
+        if(level == null) {
+            level = CreateOrRetrieveLevel(levelNum);
+        }
+
+        levelCache.put(levelNum, level);
 
         return level;
     }
 
+    // Start building levelNum on the prefetch thread, so it's already in the cache when someone asks for it. Call it
+    // as soon as you know which level is next (like when the current one is beaten).
+    void PrefetchLevel(final int levelNum) {
+        synchronized(levelLock) {
+            if(levelCache.containsKey(levelNum)) {
+                return;
+            }
+        }
+
+        PrefetchExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+
+                int galaxy = levelNum / GalaxyGenerator.LEVELS_PER_GALAXY;
+                int first = galaxy * GalaxyGenerator.LEVELS_PER_GALAXY;
+                int[][] built = new int[levelNum - first + 1][];
+
+                // Start from however much of the galaxy the render thread already has
+                synchronized(levelLock) {
+                    if(levelCache.containsKey(levelNum)) {
+                        return;
+                    }
+                    if(galaxy == indexedGalaxy) {
+                        for(int n = 0; n < built.length && galaxyLevels[n] != null; n++) {
+                            built[n] = galaxyLevels[n];
+                        }
+                    }
+                }
+
+                // Build the rest without the lock, so getLevel() on the render thread doesn't wait for us
+                if(prefetchGenerator == null) {
+                    prefetchGenerator = new BitboardLevelGenerator();
+                    prefetchSolver = new LevelSolver();
+                }
+
+                LevelIndex index = new LevelIndex(GalaxyGenerator.LEVELS_PER_GALAXY);
+                GenerationStats stats = new GenerationStats();
+                for(int n = 0; n < built.length; n++) {
+                    if(built[n] != null) {
+                        index.put(LevelCanonicalizer.hash(built[n]), first + n);
+                    } else {
+                        built[n] = LoadOrBuildLevel(first + n, prefetchGenerator, prefetchSolver, index, stats);
+                    }
+                }
+
+                synchronized(levelLock) {
+                    if(!levelCache.containsKey(levelNum)) {
+                        levelCache.put(levelNum, built[built.length - 1].clone());
+                    }
+
+                    // The next level is where the player is headed, so its galaxy becomes the current one. Anything
+                    // the render thread built meanwhile is the same as ours (same seeds), so just fill in the gaps.
+                    if(galaxy != indexedGalaxy) {
+                        galaxyIndex.clear();
+                        Arrays.fill(galaxyLevels, null);
+                        indexedGalaxy = galaxy;
+                    }
+                    for(int n = 0; n < built.length; n++) {
+                        if(galaxyLevels[n] == null) {
+                            galaxyLevels[n] = built[n];
+                            galaxyIndex.put(LevelCanonicalizer.hash(built[n]), first + n);
+                        }
+                    }
+
+                    levelsPrefetched++;
+                }
+
+                Gdx.app.debug("LevelHandler", "Prefetched level " + levelNum + " in " + ((System.nanoTime() - start) / 1000000) + "ms");
+            }
+        });
+    }
+
+    // Start building `galaxy` on the pregenerate thread and saving it to local storage (see PREGENERATE_LEVELS_LEFT), so
+    // by the time the player gets there, every level in it is just a read. If an earlier run already saved it, the
+    // pregenerate thread just reads that back in. Does nothing if it's already in memory or on its way.
+    void PregenerateGalaxy(final int galaxy) {
+        synchronized(levelLock) {
+            if(IsGalaxyInMemory(galaxy) || galaxiesPregenerating.contains(galaxy)) {
+                return;
+            }
+            galaxiesPregenerating.add(galaxy);
+            galaxiesVersion++;
+        }
+
+        PregenerateExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    LevelPack pack = LoadOrBuildGalaxyPack(galaxy);
+                    synchronized(levelLock) {
+                        galaxyPacks.put(galaxy, pack);
+                    }
+                } catch(RuntimeException e) {
+                    // No harm done, the levels will get built when they're needed like they always were
+                    Gdx.app.error("LevelHandler", "Couldn't pregenerate galaxy " + galaxy, e);
+                } finally {
+                    synchronized(levelLock) {
+                        galaxiesPregenerating.remove(galaxy);
+                        galaxiesVersion++;
+                    }
+                }
+            }
+        });
+    }
+
+    // Pregenerate the galaxies the player is about to need: the one at the edge of their progress (in case it never
+    // got built last time) and, if they're close to its end, the one after. Call once at startup; after that
+    // RecordProgress() keeps ahead of them.
+    void PregenerateAhead() {
+        int reached = Math.max(this.levelCompletionInfo.size() - 1, 0);
+        int galaxy = reached / GalaxyGenerator.LEVELS_PER_GALAXY;
+        int left = GalaxyGenerator.LEVELS_PER_GALAXY - 1 - (reached % GalaxyGenerator.LEVELS_PER_GALAXY);
+
+        PregenerateGalaxy(galaxy);
+        if(left <= PREGENERATE_LEVELS_LEFT) {
+            PregenerateGalaxy(galaxy + 1);
+        }
+    }
+
+    // True if every level in `galaxy` can be had without generating anything. Only looks at what's in memory; a
+    // galaxy saved by an earlier run counts once the pregenerate thread has read it back in (see PregenerateAhead).
+    boolean IsGalaxyReady(int galaxy) {
+        synchronized(levelLock) {
+            return IsGalaxyInMemory(galaxy);
+        }
+    }
+
+    // True while the pregenerator is building `galaxy`. Once it's done (or has given up) this goes back to false.
+    boolean IsGalaxyPregenerating(int galaxy) {
+        synchronized(levelLock) {
+            return galaxiesPregenerating.contains(galaxy);
+        }
+    }
+
+    // Call with levelLock held
+    private boolean IsGalaxyInMemory(int galaxy) {
+        int first = galaxy * GalaxyGenerator.LEVELS_PER_GALAXY;
+        int last = first + GalaxyGenerator.LEVELS_PER_GALAXY - 1;
+
+        if(galaxyPacks.containsKey(galaxy)) {
+            return true;
+        }
+        if(levelPack != null && levelPack.contains(first) && levelPack.contains(last)) {
+            return true;
+        }
+        return galaxy == indexedGalaxy && galaxyLevels[GalaxyGenerator.LEVELS_PER_GALAXY - 1] != null;
+    }
+
+    private LevelPack getGalaxyPack(int galaxy) {
+        synchronized(levelLock) {
+            return galaxyPacks.get(galaxy);
+        }
+    }
+
+    private FileHandle GalaxyPackFile(int galaxy) {
+        return Gdx.files.local(GALAXY_PACK_DIR + "/galaxy" + galaxy + ".pack");
+    }
+
+    // The galaxy's file from an earlier run, if it's there and from the same pack seed; otherwise null. Pregenerate
+    // thread only: it's a file read and a CRC check.
+    private LevelPack LoadGalaxyPack(int galaxy) {
+        int first = galaxy * GalaxyGenerator.LEVELS_PER_GALAXY;
+        FileHandle file = GalaxyPackFile(galaxy);
+
+        if(file.exists()) {
+            try {
+                LevelPack pack = LevelPack.open(file);
+                if(pack.getPackSeed() == packSeed && pack.getFirstLevel() == first && pack.size() == GalaxyGenerator.LEVELS_PER_GALAXY) {
+                    return pack;
+                }
+            } catch(GdxRuntimeException e) {
+                // Broken, build it again
+            }
+        }
+        return null;
+    }
+
+    // Pregenerate thread only. Uses the galaxy's file from an earlier run if there is one (see LoadGalaxyPack),
+    // otherwise builds the galaxy with our own generator and solver (the handler's belong to the render thread) and
+    // writes it out.
+    private LevelPack LoadOrBuildGalaxyPack(int galaxy) {
+        int first = galaxy * GalaxyGenerator.LEVELS_PER_GALAXY;
+        FileHandle file = GalaxyPackFile(galaxy);
+
+        LevelPack existing = LoadGalaxyPack(galaxy);
+        if(existing != null) {
+            return existing;
+        }
+
+        long start = System.nanoTime();
+
+        if(pregenerateGenerator == null) {
+            pregenerateGenerator = new BitboardLevelGenerator();
+            pregenerateSolver = new LevelSolver();
+        }
+
+        LevelIndex index = new LevelIndex(GalaxyGenerator.LEVELS_PER_GALAXY);
+        GenerationStats stats = new GenerationStats();
+        int[][] built = new int[GalaxyGenerator.LEVELS_PER_GALAXY][];
+
+        for(int a = 0; a < built.length; a++) {
+            built[a] = LoadOrBuildLevel(first + a, pregenerateGenerator, pregenerateSolver, index, stats);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            LevelPack.write(bytes, packSeed, first, built);
+        } catch(IOException e) {
+            throw new GdxRuntimeException(e);
+        }
+
+        FileHandle temp = file.sibling(file.name() + ".tmp");
+        temp.writeBytes(bytes.toByteArray(), false);
+        temp.moveTo(file);
+
+        Gdx.app.debug("LevelHandler", "Pregenerated galaxy " + galaxy + " in " + ((System.nanoTime() - start) / 1000000) + "ms");
+
+        return new LevelPack(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    private ExecutorService PrefetchExecutor() {
+        if(prefetchExecutor == null) {
+            // The player is about to want this level, so it gets more of a say than the pregenerator
+            prefetchExecutor = NewBackgroundExecutor("LevelPrefetch", Thread.NORM_PRIORITY - 1);
+        }
+        return prefetchExecutor;
+    }
+
+    private ExecutorService PregenerateExecutor() {
+        if(pregenerateExecutor == null) {
+            pregenerateExecutor = NewBackgroundExecutor("GalaxyPregenerate", Thread.MIN_PRIORITY); // Don't fight the render thread
+        }
+        return pregenerateExecutor;
+    }
+
+    private static ExecutorService NewBackgroundExecutor(final String name, final int priority) {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                thread.setPriority(priority);
+                return thread;
+            }
+        });
+    }
+
+    // Stop the background threads. Call when the game is going away.
+    void Dispose() {
+        if(prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+            prefetchExecutor = null;
+        }
+        if(pregenerateExecutor != null) {
+            pregenerateExecutor.shutdownNow();
+            pregenerateExecutor = null;
+        }
+    }
+
+    // Call with levelLock held
     int[] CreateOrRetrieveLevel(int levelNum) {
 
-        // Make sure we create an entry for levelCompletionInfo as well
-        if(levelNum+1 == getLevelCompletionInfo().levelData.size()) {
-            // So if we were asking for level 5, and levelData.size() was 6, we could return levelData[5] but
-            // we would still need to generate the next levelcompletion info. So let's build it here.
-            int tmp[] = new int[]{0,0,0,0,0};
-            getLevelCompletionInfo().levelData.add(tmp);
+        // Duplicates are checked against the lower levels of the same galaxy, so those have to exist first. We keep
+        // the current galaxy around, so this only really does anything the first time we touch a galaxy.
+        int galaxy = levelNum / GalaxyGenerator.LEVELS_PER_GALAXY;
+        int first = galaxy * GalaxyGenerator.LEVELS_PER_GALAXY;
+
+        if(galaxy != indexedGalaxy) {
+            galaxyIndex.clear();
+            Arrays.fill(galaxyLevels, null);
+            indexedGalaxy = galaxy;
         }
 
-        int[] level;
+        for(int n = first; n <= levelNum; n++) {
+            if(galaxyLevels[n - first] == null) {
+                galaxyLevels[n - first] = LoadOrBuildLevel(n, levelGenerator, levelSolver, galaxyIndex, generationStats);
+            }
+        }
+
+        return galaxyLevels[levelNum - first].clone();
+    }
 
-        // First check if that level file already exists
-        Json json = new Json();
+    // Where a level comes from, in order: tutorials, levels saved by old installs, the pack shipped with the game, a
+    // galaxy the pregenerator already built, and finally the generator. `index` is the galaxy's duplicate index so
+    // far; the level's hash gets added to it.
+    private int[] LoadOrBuildLevel(int levelNum, BitboardLevelGenerator levelGenerator, LevelSolver levelSolver, LevelIndex galaxyIndex, GenerationStats generationStats) {
+
+        int[] level = getTutorialLevel(levelNum);
+
+        if(level != null) {
+            galaxyIndex.put(LevelCanonicalizer.hash(level), levelNum);
+            return level;
+        }
 
+        // Installs from before pack seeds have their levels saved as level#data. Those were random, so we can't
+        // rebuild them; keep using the saved copy so nobody's levels change under them.
         String serializedLevel = levels.getString("level"+levelNum+"data"); // level#data is old gravityGridLevel, level#completioninfo is old levelCompletionInfo
 
         // Does this level file exist?
         if(!serializedLevel.isEmpty()) {
             // If it's not empty, let's pull in the values for the level
+            Json json = new Json();
             level = json.fromJson(int[].class, serializedLevel);
 
+            galaxyIndex.put(LevelCanonicalizer.hash(level), levelNum);
             return level;
-        } else {
-            // There was no serialized level or the file doesn't exist (same thing), so let's build a new level, store it, and then return it
-
-            // The default is triggered if we're not displaying a tutorial level. This generates a level for us
-            levelGenerator = new LevelGenerator();
-
-            int a = 0;
-            int b = 0;
-            int c = 0;
-            int d = 0; // init variables for use in our GenerateLevel() func below
-            boolean e = false;
-            boolean f = false;
-
-            // Figure out our boundaries for random numbers given our current level
-            switch(levelNum) { // Switch here to control the first galaxy
-                case 2: a=1; b=3; break;
-                case 3: a=1; b=4; break;
-                case 4: a=1; b=5; break;
-                case 5: a=1; b=6; break;
-
-                case 7:  a=1; b=0; c=3; break;
-                case 8:  a=1; b=0; c=4; break;
-                case 9:  a=1; b=0; c=5; break;
-                case 10: a=2; b=0; c=6; break;
-                case 11:
-                case 12: a=2; b=4; c=4; break;
-                case 13:
-                case 14:
-                case 15: a=3; b=5; c=5; break;
-                case 16:
-                case 17:
-                case 18: a=3; b=6; c=6; break;
-                case 19:
-                case 20: a=3; b=11; c=4; break;
-                case 21: a=3; b=4; c=11; break;
-                case 22:
-                case 23:
-                case 24: a=3; b=7; c=7; break;
-                case 25:  // Game level 26
-                case 26:
-                case 27:
-                case 28:
-                case 29:
-                case 30: a=3; b=MathUtils.random(2, 9); c=MathUtils.random(2,9); e = true;
-
-                case 51:
-                case 52: a=3; b=0;c=0;d=3; e=true;
-                case 53: a=3; b=0;c=0;d=4; e=true;
-                case 54: a=3; b=0;c=0;d=6; e=true;
-
-                default:
-                    // This only triggers after all the above levels have been accounted for:
-                    if(levelNum > 30 && levelNum <= 50) {
-                        a=MathUtils.random(2,4);
-                        b=MathUtils.random(0, 9);
-                        c=MathUtils.random(0,9);
-                        e = true;
-                    } else if(levelNum > 50 && levelNum <= 75) {
-                        a = MathUtils.random(3, 6);
-                        b = MathUtils.random(0, 11);
-                        c = MathUtils.random(0, 11);
-                        d = MathUtils.random(0, 11);
-                        e = true;
-                    } else {
-                        // Anything here has levelNum > 75, so do everything
-                        a = MathUtils.random(3, 8);
-                        b = MathUtils.random(0, 11);
-                        c = MathUtils.random(0, 11);
-                        e = true;
-                        f = true;
-                }
+        } else if(levelPack != null && levelPack.contains(levelNum)) {
+            // Shipped with the game. These were already de-duplicated when the pack was built.
+            level = levelPack.getLevel(levelNum);
 
-            }
+            galaxyIndex.put(LevelCanonicalizer.hash(level), levelNum);
+            return level;
+        }
 
-            level = GenerateLevel(a, b, c, d, e, f);
+        LevelPack galaxyPack = getGalaxyPack(levelNum / GalaxyGenerator.LEVELS_PER_GALAXY);
 
-            // Create a hashtable to store our level data.
-            Hashtable<String, String> hashTable = new Hashtable<String, String>();
+        if(galaxyPack != null) {
+            // Built ahead of time by PregenerateGalaxy(), same as what we'd build below
+            level = galaxyPack.getLevel(levelNum);
 
-            // Here we are serializing our array
-            hashTable.put("level"+levelNum+"data", json.toJson(level));
+            galaxyIndex.put(LevelCanonicalizer.hash(level), levelNum);
+            return level;
+        } else {
+            // Everything else gets built from the pack seed. Nothing to store, we'll get the same level next time.
+            level = BuildLevel(levelGenerator, levelSolver, packSeed, levelNum, generationStats);
+            level = Deduplicate(level, levelGenerator, levelSolver, packSeed, levelNum, galaxyIndex, generationStats);
 
-            // Store it in the preferences file
-            levels.put(hashTable);
-            levels.flush();
+            if(generationStats.usedFallback) {
+                Gdx.app.error("LevelHandler", "Couldn't generate level " + levelNum + ": " + generationStats);
+            } else {
+                Gdx.app.debug("LevelHandler", "Generated level " + levelNum + ": " + generationStats);
+            }
 
             // Return the level for use
             return level;
         }
     }
 
+    // Records a win or loss (see LevelCompletionInfo.Apply) and returns the event, which still has to be handed to the
+    // SaveStateWriter to end up in the journal
+    ProgressJournal.Event RecordProgress(int level, int status, int moves, int points) {
+        // The level was just played, so this comes out of the cache
+        int par = getLevel(level)[52];
+
+        ProgressJournal.Event event = new ProgressJournal.Event(++journalSequence, level, status, moves, points,
+                this.levelCompletionInfo.size(), par);
+
+        this.levelCompletionInfo.Apply(event);
+        ProgressChanged();
+
+        // Getting close to the end of the galaxy, so get the next one ready
+        int left = GalaxyGenerator.LEVELS_PER_GALAXY - 1 - (level % GalaxyGenerator.LEVELS_PER_GALAXY);
+        if(status == 2 && left <= PREGENERATE_LEVELS_LEFT) {
+            PregenerateGalaxy((level / GalaxyGenerator.LEVELS_PER_GALAXY) + 1);
+        }
+
+        return event;
+    }
+
+    // Saves the whole of levelCompletionInfo right now, on this thread, and empties the journal. Normal saves go
+    // through the SaveStateWriter; this is for when there's no journal to speak of yet (a new install).
     public void SaveLevelCompletionInfo() {
 
         // TODO: Add check here to see if we're on the last level of a galaxy. if we are, let's go ahead
         // and prepopulate the next 25 levels so that our level select screen doesn't crash.
 
-        Hashtable<String, String> hashTable = new Hashtable<String, String>();
+        SaveSnapshot(snapshotFile, this.levelCompletionInfo, journalSequence);
+        journal.Clear();
+    }
+
+    // Stores `info` as the snapshot, including every journal event up to `sequence`. Written to a temp file first and
+    // then moved over the old one, so dying halfway through leaves us with the old snapshot instead of half of one.
+    static void SaveSnapshot(FileHandle snapshotFile, LevelCompletionInfo info, int sequence) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + (info.size() * 17));
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(sequence);
+            info.Write(out);
+            out.flush();
+        } catch(IOException e) {
+            // It's a byte array, this can't actually happen
+            throw new GdxRuntimeException(e);
+        }
+
+        FileHandle temp = snapshotFile.sibling(snapshotFile.name() + ".tmp");
+        temp.writeBytes(bytes.toByteArray(), false);
+        temp.moveTo(snapshotFile);
+    }
 
-        Json json = new Json();
+    ProgressJournal getJournal() { return this.journal; }
+    FileHandle getSnapshotFile() { return this.snapshotFile; }
 
-        // Save our levelcompletioninfo
-        hashTable.put("levelcompletioninfo", json.toJson(this.levelCompletionInfo));
+    // A deep copy of levelCompletionInfo, for handing to the SaveStateWriter
+    public LevelCompletionInfo CopyLevelCompletionInfo() {
+        return this.levelCompletionInfo.Copy();
+    }
 
-        // Store it in the preferences file
-        levels.put(hashTable);
-        levels.flush();
+    // What a new install starts with
+    private static LevelCompletionInfo NewInstallProgress() {
+        LevelCompletionInfo info = new LevelCompletionInfo();
+        info.AddLevels(1);
+        info.setStatus(0, 1); // First one on a new install should be "1" status
+        return info;
     }
 
-    public boolean LoadLevelCompletionInfo() {
-        // Load a serialized ArrayList
-        Json json = new Json();
+    // Only the constructor calls this. Loading again later would throw away progress the SaveStateWriter already has.
+    // Returns false if there's no progress anywhere (a new install), in which case the constructor saves a new one.
+    private boolean LoadLevelCompletionInfo() {
+
+        int sequence = 0;
+        this.levelCompletionInfo = null;
+
+        if(snapshotFile.exists()) {
+            try {
+                sequence = ReadSnapshot();
+            } catch(RuntimeException e) {
+                // Whatever's wrong with it, don't let the new install path save over it. Put it aside, where it can be
+                // looked at (or fixed by hand), and get what we can from the legacy save and the journal below.
+                Gdx.app.error("LevelHandler", SNAPSHOT_FILE + " isn't a progress snapshot we can read", e);
+                MoveAside(snapshotFile);
+                this.levelCompletionInfo = null;
+                sequence = 0;
+            }
+        }
+
+        if(this.levelCompletionInfo == null) {
+            // Saves from before the snapshot file kept levelcompletioninfo as Json in the preferences. Move it over
+            // once; after that it only comes from the snapshot.
+            String serializedData = levels.getString("levelcompletioninfo"); // level#data is old gravityGridLevel, level#completioninfo is old levelCompletionInfo
 
-        String serializedData = levels.getString("levelcompletioninfo"); // level#data is old gravityGridLevel, level#completioninfo is old levelCompletionInfo
+            if(!serializedData.isEmpty()) {
+                sequence = levels.getInteger("journalsequence", 0);
+                this.levelCompletionInfo = LevelCompletionInfo.FromJson(serializedData);
 
-        // If the levelcompletion info string exists, then lets populate our level completion info.
-        if(!serializedData.isEmpty()) {
-            this.levelCompletionInfo.levelData = new ArrayList<int[]>();
-            this.levelCompletionInfo = json.fromJson(LevelCompletionInfo.class, serializedData);
+                SaveSnapshot(snapshotFile, this.levelCompletionInfo, sequence);
+                levels.remove("levelcompletioninfo");
+                levels.remove("journalsequence");
+                levels.flush();
+            }
+        }
+
+        if(this.levelCompletionInfo == null) {
+            // No snapshot we can use. If there's a journal, it has everything since the last snapshot was saved, which
+            // beats starting over.
+            LevelCompletionInfo info = NewInstallProgress();
+            int last = journal.Replay(info, 0);
+            if(journal.HasUnreadRecords()) {
+                // Whatever we start with gets saved over the journal, so keep what we couldn't read
+                MoveAside(journal.getFile());
+            }
+            if(last == 0) {
+                return false;
+            }
+
+            Gdx.app.error("LevelHandler", "Rebuilt progress from " + ProgressJournal.FILE + " up to event " + last);
+            this.levelCompletionInfo = info;
+            journalSequence = last;
+
+            // Keep it somewhere better than the journal
+            SaveLevelCompletionInfo();
             return true;
-        } else {
-            return false;
+        }
+
+        // Then everything that happened since the snapshot was saved
+        journalSequence = journal.Replay(this.levelCompletionInfo, sequence);
+
+        if(journal.HasUnreadRecords()) {
+            // New records would go on after the ones we couldn't read, and every later start would stop at the same
+            // place and lose them. Keep the file for whoever wants to look at it and start a new one.
+            Gdx.app.error("LevelHandler", "Couldn't read all of " + ProgressJournal.FILE + ", replayed up to event " + journalSequence);
+            MoveAside(journal.getFile());
+            SaveLevelCompletionInfo();
+        } else if(journal.IsLegacy()) {
+            // Get the old records into a snapshot now, so new ones start a new journal instead of going on the end
+            SaveLevelCompletionInfo();
+        }
+        return true;
+    }
+
+    // Reads the snapshot into levelCompletionInfo and returns its sequence number. Throws if it's not a snapshot we
+    // can read.
+    private int ReadSnapshot() {
+        ByteBuffer buffer = ByteBuffer.wrap(snapshotFile.readBytes());
+
+        int version = buffer.remaining() >= 12 && buffer.getInt() == SNAPSHOT_MAGIC ? buffer.getInt() : -1;
+        if(version < 1 || version > SNAPSHOT_VERSION) {
+            throw new GdxRuntimeException("Unknown snapshot version " + version);
+        }
+
+        int sequence = buffer.getInt();
+        this.levelCompletionInfo = LevelCompletionInfo.Read(buffer, version);
+        return sequence;
+    }
+
+    // Renames `file` to <name>.bad (or .bad2, .bad3... so an earlier one doesn't get lost either)
+    private static void MoveAside(FileHandle file) {
+        FileHandle bad = file.sibling(file.name() + ".bad");
+        for(int a = 2; bad.exists(); a++) {
+            bad = file.sibling(file.name() + ".bad" + a);
+        }
+        try {
+            file.moveTo(bad);
+        } catch(GdxRuntimeException e) {
+            Gdx.app.error("LevelHandler", "Couldn't move " + file.name() + " aside", e);
         }
     }
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import java.util.Arrays;
+
+/**
+ * A long -> int hash map made of two primitive arrays, for looking up levels by LevelCanonicalizer.hash(). No boxing,
+ * no entry objects, O(1) get/put.
+ *
+ * Open addressing with linear probing; the table doubles when it gets half full. Key 0 marks an empty slot, so 0
+ * can't be used as a key (LevelCanonicalizer.hash() never returns it).
+ */
+
+public final class LevelIndex {
+
+    public static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LevelIndex() {
+        this(64);
+    }
+
+    public LevelIndex(int expected) {
+        int capacity = 16;
+        while(capacity < expected * 2) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long key) {
+        return get(key) != MISSING;
+    }
+
+    // Returns the value for `key`, or MISSING
+    public int get(long key) {
+        int slot = slot(key);
+        while(keys[slot] != 0) {
+            if(keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    // Stores `value` under `key` and returns whatever was there before (or MISSING)
+    public int put(long key, int value) {
+        int slot = slot(key);
+        while(keys[slot] != 0) {
+            if(keys[slot] == key) {
+                int old = values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+
+        if(size * 2 > keys.length) {
+            grow();
+        }
+
+        return MISSING;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+
+        for(int a = 0; a < oldKeys.length; a++) {
+            if(oldKeys[a] != 0) {
+                int slot = slot(oldKeys[a]);
+                while(keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[a];
+                values[slot] = oldValues[a];
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * A file full of prebuilt levels (see LevelPackBuilder in the tools module), read straight out of a memory-mapped
+ * ByteBuffer. Opening it checks the header and the CRC once; after that getLevel() is a bounds check and 53 byte
+ * reads into an array you hand it. No JSON, no parsing, no garbage.
+ *
+ * Layout (big endian):
+ *
+ *   header   int magic ("GGLP"), int version, long pack seed, int first level, int level count,
+ *            int record size (53), int CRC32 of everything after the header
+ *   index    one int per level: byte offset of that level's record from the start of the file
+ *   records  53 bytes per level, the usual level array (every value fits in an unsigned byte)
+ *
+ * Records are all the same size today, so the index is really just there so we can change that later without
+ * changing the format.
+ */
+
+public final class LevelPack {
+
+    public static final int MAGIC = 0x47474C50; // "GGLP"
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 53;
+
+    private final ByteBuffer buffer;
+    private final long packSeed;
+    private final int firstLevel;
+    private final int count;
+
+    // Maps the file if it's a real file on disk (local/external storage, or anything on desktop). Files inside the APK
+    // aren't, so those get read into memory once instead; still no parsing.
+    public static LevelPack open(FileHandle file) {
+        File real = file.file();
+        if(file.type() != Files.FileType.Classpath && real.isFile()) {
+            try {
+                return map(real);
+            } catch(IOException e) {
+                // Fall through and read it the normal way
+            }
+        }
+        return new LevelPack(ByteBuffer.wrap(file.readBytes()));
+    }
+
+    public static LevelPack map(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            // The mapping stays valid after the channel is closed
+            return new LevelPack(raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length()));
+        } finally {
+            raf.close();
+        }
+    }
+
+    public LevelPack(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+
+        if(buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new GdxRuntimeException("Not a level pack");
+        }
+        if(buffer.getInt(4) != VERSION) {
+            throw new GdxRuntimeException("Unsupported level pack version " + buffer.getInt(4));
+        }
+
+        packSeed = buffer.getLong(8);
+        firstLevel = buffer.getInt(16);
+        count = buffer.getInt(20);
+
+        if(buffer.getInt(24) != RECORD_SIZE || count < 0 || buffer.limit() != HEADER_SIZE + (count * (4 + RECORD_SIZE))) {
+            throw new GdxRuntimeException("Level pack is the wrong size");
+        }
+        if(buffer.getInt(28) != crc(buffer)) {
+            throw new GdxRuntimeException("Level pack is corrupt (bad CRC)");
+        }
+    }
+
+    public long getPackSeed() { return packSeed; }
+    public int getFirstLevel() { return firstLevel; }
+    public int size() { return count; }
+
+    public boolean contains(int levelNum) {
+        return levelNum >= firstLevel && levelNum < firstLevel + count;
+    }
+
+    // Copies levelNum into `level` (53 ints) and returns it
+    public int[] getLevel(int levelNum, int[] level) {
+        if(!contains(levelNum)) {
+            throw new GdxRuntimeException("Level " + levelNum + " isn't in this pack");
+        }
+
+        int offset = buffer.getInt(HEADER_SIZE + ((levelNum - firstLevel) * 4));
+        for(int a = 0; a < RECORD_SIZE; a++) {
+            level[a] = buffer.get(offset + a) & 0xFF;
+        }
+        return level;
+    }
+
+    public int[] getLevel(int levelNum) {
+        return getLevel(levelNum, new int[RECORD_SIZE]);
+    }
+
+    // Writes `levels` (starting at level number firstLevel) as a pack
+    public static void write(OutputStream stream, long packSeed, int firstLevel, int[][] levels) throws IOException {
+
+        int count = levels.length;
+        byte[] body = new byte[count * (4 + RECORD_SIZE)];
+        ByteBuffer b = ByteBuffer.wrap(body);
+
+        for(int i = 0; i < count; i++) {
+            b.putInt(HEADER_SIZE + (count * 4) + (i * RECORD_SIZE));
+        }
+        for(int[] level : levels) {
+            for(int a = 0; a < RECORD_SIZE; a++) {
+                if(level[a] < 0 || level[a] > 255) {
+                    throw new IOException("Level value " + level[a] + " doesn't fit in a byte");
+                }
+                b.put((byte) level[a]);
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(packSeed);
+        out.writeInt(firstLevel);
+        out.writeInt(count);
+        out.writeInt(RECORD_SIZE);
+        out.writeInt((int) crc.getValue());
+        out.write(body);
+        out.flush();
+    }
+
+    // CRC32 of everything after the header. CRC32.update(ByteBuffer) is Java 8 only, so go through a small array.
+    private static int crc(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[4096];
+
+        ByteBuffer body = buffer.duplicate();
+        body.position(HEADER_SIZE);
+
+        while(body.hasRemaining()) {
+            int length = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, length);
+            crc.update(chunk, 0, length);
+        }
+
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import java.util.Random;
+
+/**
+ * The knobs we hand to the level generator for a given level: how many moves to make, how many planets of each
+ * color, and whether to throw in asteroids and suns.
+ *
+ * This used to be the a..f switch inside LevelHandler.CreateOrRetrieveLevel(). It lives here now so the
+ * GalaxyGenerator can work out the parameters for a level without a LevelHandler (or Gdx.app) around.
+ */
+
+public final class LevelParameters {
+
+    public final int complexity;
+    public final int redWeight;
+    public final int blueWeight;
+    public final int greenWeight;
+    public final boolean genAsteroids;
+    public final boolean genSuns;
+
+    public LevelParameters(int complexity, int redWeight, int blueWeight, int greenWeight, boolean genAsteroids, boolean genSuns) {
+        this.complexity = complexity;
+        this.redWeight = redWeight;
+        this.blueWeight = blueWeight;
+        this.greenWeight = greenWeight;
+        this.genAsteroids = genAsteroids;
+        this.genSuns = genSuns;
+    }
+
+    // Figure out our boundaries for random numbers given our current level. Any randomness comes from `random`, so
+    // the same seed always gives the same parameters.
+    public static LevelParameters forLevel(int levelNum, Random random) {
+
+        int a = 0;
+        int b = 0;
+        int c = 0;
+        int d = 0; // init variables for use in our GenerateLevel() func below
+        boolean e = false;
+        boolean f = false;
+
+        // NOTE: 25-30 and 51-54 fall through to the default on purpose(ish); that's how every existing install has
+        // been generating those levels, so leave it alone.
+        switch(levelNum) { // Switch here to control the first galaxy
+            case 2: a=1; b=3; break;
+            case 3: a=1; b=4; break;
+            case 4: a=1; b=5; break;
+            case 5: a=1; b=6; break;
+
+            case 7:  a=1; b=0; c=3; break;
+            case 8:  a=1; b=0; c=4; break;
+            case 9:  a=1; b=0; c=5; break;
+            case 10: a=2; b=0; c=6; break;
+            case 11:
+            case 12: a=2; b=4; c=4; break;
+            case 13:
+            case 14:
+            case 15: a=3; b=5; c=5; break;
+            case 16:
+            case 17:
+            case 18: a=3; b=6; c=6; break;
+            case 19:
+            case 20: a=3; b=11; c=4; break;
+            case 21: a=3; b=4; c=11; break;
+            case 22:
+            case 23:
+            case 24: a=3; b=7; c=7; break;
+            case 25:  // Game level 26
+            case 26:
+            case 27:
+            case 28:
+            case 29:
+            case 30: a=3; b=random(random, 2, 9); c=random(random, 2, 9); e = true;
+
+            case 51:
+            case 52: a=3; b=0;c=0;d=3; e=true;
+            case 53: a=3; b=0;c=0;d=4; e=true;
+            case 54: a=3; b=0;c=0;d=6; e=true;
+
+            default:
+                // This only triggers after all the above levels have been accounted for:
+                if(levelNum > 30 && levelNum <= 50) {
+                    a=random(random, 2, 4);
+                    b=random(random, 0, 9);
+                    c=random(random, 0, 9);
+                    e = true;
+                } else if(levelNum > 50 && levelNum <= 75) {
+                    a = random(random, 3, 6);
+                    b = random(random, 0, 11);
+                    c = random(random, 0, 11);
+                    d = random(random, 0, 11);
+                    e = true;
+                } else {
+                    // Anything here has levelNum > 75, so do everything
+                    a = random(random, 3, 8);
+                    b = random(random, 0, 11);
+                    c = random(random, 0, 11);
+                    e = true;
+                    f = true;
+                }
+        }
+
+        return new LevelParameters(a, b, c, d, e, f);
+    }
+
+    // Some combos can never make a level: a lone red or blue planet has nowhere legal to go, a board with no planets
+    // has nothing to move, two reds on their own run out of new totals on long levels, and every color has to move at
+    // least once. This is the nearest combo that can, for when the generator runs out of attempts on this one (see
+    // LevelHandler.BuildLevel).
+    public LevelParameters Playable() {
+        int red = redWeight == 1 ? 2 : redWeight;
+        int blue = blueWeight == 1 ? 2 : blueWeight;
+        int green = greenWeight;
+
+        if(blue == 0 && green == 0) {
+            red = Math.max(red, 3);
+        }
+
+        int colors = (red > 0 ? 1 : 0) + (blue > 0 ? 1 : 0) + (green > 0 ? 1 : 0);
+
+        return new LevelParameters(Math.max(complexity, colors), red, blue, green, genAsteroids, genSuns);
+    }
+
+    // Same as MathUtils.random(start, end), but from our own generator
+    private static int random(Random random, int start, int end) {
+        return start + random.nextInt(end - start + 1);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * Every generated level comes from a seed: the pack seed (one per install, or one per level pack we ship) mixed with
+ * the level number. Same pack seed + same level number = same level, every time, on every device. So instead of
+ * saving every level we only have to save the pack seed.
+ */
+
+public final class LevelSeed {
+
+    private LevelSeed() {
+    }
+
+    // The seed for levelNum in the pack with `packSeed`. This is SplitMix64, so levels next to each other get
+    // completely unrelated seeds.
+    public static long forLevel(long packSeed, int levelNum) {
+        long z = packSeed + ((levelNum + 1) * 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Seed for the retry'th re-roll of levelNum (retry 0 is the level itself). Used when a level turns out to be the
+    // same puzzle as an earlier one.
+    public static long forLevel(long packSeed, int levelNum, int retry) {
+        long seed = forLevel(packSeed, levelNum);
+        return retry == 0 ? seed : forLevel(seed, retry);
+    }
+
+    // A fresh RNG for levelNum. Everything random about the level (its parameters and the generator's choices) has to
+    // come out of this, in order, or the level won't come out the same next time.
+    public static RandomXS128 randomFor(long packSeed, int levelNum) {
+        return new RandomXS128(forLevel(packSeed, levelNum));
+    }
+
+    public static RandomXS128 randomFor(long packSeed, int levelNum, int retry) {
+        return new RandomXS128(forLevel(packSeed, levelNum, retry));
+    }
+}
@@ -24,8 +24,6 @@ public class LevelSelectScreen implements Screen {
 
     private GravityGrid game;
 
-    LevelHandler levels;
-
     private int tileWidth;
     private int tileHeight;
     private int whiteSpace;
@@ -40,6 +38,8 @@ public class LevelSelectScreen implements Screen {
     TextureRegion levelTileBackgroundRegion;
     TextureRegion[] levelIconRegion; // levelIconRegion[0] corresponds to game.levelCompletionInfo[level].[0] value. see `type` below
     ArrayList<LevelIcon> levelIcons; // The tiles for our level selector
+    GalaxySummary galaxySummary; // Status, best moves and par of the levels in the galaxy we're showing
+    private PlayingScreen playingScreen; // Made the first time a level is played, then reused for every level after
 
     TextureRegion previousGalaxyButtonRegion;
     TextureRegion nextGalaxyButtonRegion;
@@ -76,7 +76,8 @@ public class LevelSelectScreen implements Screen {
     public LevelSelectScreen(GravityGrid game) {
         this.game = game;
 
-        levels = new LevelHandler();
+        // Loads our atlases (and unloads the main menu's)
+        game.assets.Enter(AssetLoader.SCREEN_LEVEL_SELECT);
 
         // Setup the camera
         camera = new OrthographicCamera();
@@ -89,19 +90,19 @@ public class LevelSelectScreen implements Screen {
         nopeSound = game.assets.getAssetManager().get("sounds/nope.ogg", Sound.class);
 
         // Load textures
-        screenBackgroundRegion = game.assets.getAtlas().findRegion("menu/blackBackground");
-        levelTileBackgroundRegion = game.assets.getAtlas().findRegion("levelicons/background");
+        screenBackgroundRegion = game.assets.findRegion("menu/blackBackground");
+        levelTileBackgroundRegion = game.assets.findRegion("levelicons/background");
 
         tileWidth = screenWidth / 5; // So it's 7 segments of our screenwidth minus the space we've reserved for the tile labels.
         tileHeight = screenWidth / 5;
 
         levelIconRegion = new TextureRegion[3];
-        levelIconRegion[0] = game.assets.getAtlas().findRegion("levelicons/locked");
-        levelIconRegion[1] = game.assets.getAtlas().findRegion("levelicons/play");
-        levelIconRegion[2] = game.assets.getAtlas().findRegion("levelicons/done");
+        levelIconRegion[0] = game.assets.findRegion("levelicons/locked");
+        levelIconRegion[1] = game.assets.findRegion("levelicons/play");
+        levelIconRegion[2] = game.assets.findRegion("levelicons/done");
 
-        previousGalaxyButtonRegion = game.assets.getAtlas().findRegion("levelicons/previousGalaxyButton");
-        nextGalaxyButtonRegion = game.assets.getAtlas().findRegion("levelicons/nextGalaxyButton");
+        previousGalaxyButtonRegion = game.assets.findRegion("levelicons/previousGalaxyButton");
+        nextGalaxyButtonRegion = game.assets.findRegion("levelicons/nextGalaxyButton");
 
         // The whitespace variable sets a modifier for the rect.x values of each tile so that the grid is in the center of the screen.
         this.whiteSpace = (int)(0.5*screenHeight) + (int)(0.33*(screenWidth/5)*5);
@@ -134,8 +135,8 @@ public class LevelSelectScreen implements Screen {
             for(int c = 0; c < 5; c++) {
 
                 // Figure out the type of this level icon
-                int thisLevelIconType = game.getLevelHandler().getLevelCompletionInfo().levelData.get((game.currentGalaxy*25)+levelNum)[0];
-                //System.out.println("Max: "+game.getLevelHandler().getLevelCompletionInfo().levelData.size()+":: At levelNum "+levelNum+" I found "+thisLevelIconType);
+                int thisLevelIconType = game.getLevelHandler().getLevelCompletionInfo().getStatus((game.currentGalaxy*25)+levelNum);
+                //System.out.println("Max: "+game.getLevelHandler().getLevelCompletionInfo().size()+":: At levelNum "+levelNum+" I found "+thisLevelIconType);
 
                 // Create a placeholder for the rect values
                 Rectangle rect = new Rectangle();
@@ -151,7 +152,7 @@ public class LevelSelectScreen implements Screen {
                 levelIcons.add(new LevelSelectScreen.LevelIcon(rect, levelNum, thisLevelIconType));
 
                 worldCol++;
-                if(levelNum <= game.getLevelHandler().getLevelCompletionInfo().levelData.size()-1) {
+                if(levelNum <= game.getLevelHandler().getLevelCompletionInfo().size()-1) {
                     levelNum++; // make sure we aren't going to throw an index out of bounds exception
                 }
             }
@@ -161,6 +162,9 @@ public class LevelSelectScreen implements Screen {
 
         }
 
+        // Everything render() needs to know about these levels, so it doesn't have to ask the level handler every frame
+        galaxySummary = new GalaxySummary();
+        galaxySummary.Build(game.getLevelHandler(), game.currentGalaxy);
 
     }
 
@@ -168,11 +172,9 @@ public class LevelSelectScreen implements Screen {
     public void ChangeToGalaxy(int direction) {
 
         // If we actually have a new galaxy when calling ChangeToGalaxy(1)...
-        if(game.currentGalaxy + direction >= game.getLevelHandler().getLevelCompletionInfo().levelData.size()/25) {
+        if(game.currentGalaxy + direction >= game.getLevelHandler().getLevelCompletionInfo().size()/25) {
             // Oops! we're trying to go to a galaxy that we never instantiated! Let's fill up the next 25 levels, shall we?
-            for(int a=0; a<25; a++) {
-                game.getLevelHandler().getLevelCompletionInfo().levelData.add(new int[]{0,0,0,0,0,0});
-            }
+            game.getLevelHandler().getLevelCompletionInfo().AddLevels(25);
         }
 
         game.currentGalaxy += direction;
@@ -183,26 +185,41 @@ public class LevelSelectScreen implements Screen {
             for(int c = 0; c < 5; c++) {
 
                 // Get the icon we need
-                int thisLevelIconType = game.getLevelHandler().getLevelCompletionInfo().levelData.get((game.currentGalaxy*25)+levelNum)[0];
+                int thisLevelIconType = game.getLevelHandler().getLevelCompletionInfo().getStatus((game.currentGalaxy*25)+levelNum);
 
                 // set the level icon appropriately
                 levelIcons.get(levelNum).type = thisLevelIconType;
 
-                if(levelNum <= game.getLevelHandler().getLevelCompletionInfo().levelData.size()-1) {
+                if(levelNum <= game.getLevelHandler().getLevelCompletionInfo().size()-1) {
                     levelNum++; // make sure we aren't going to throw an index out of bounds exception
                 }
             }
         }
+
+        galaxySummary.Build(game.getLevelHandler(), game.currentGalaxy);
+
+        // Whatever level gets picked here is played on this galaxy's background, so have it loading in the meantime
+        game.assets.Preload(PlayingScreen.GalaxyAtlas(PlayingScreen.BackgroundNumber(game.currentGalaxy * 25)));
     }
 
 
+    // The one PlayingScreen we use for every level. Making it loads the regions, sounds and effects it needs, so we
+    // only want to do that once.
+    private PlayingScreen getPlayingScreen() {
+        if(playingScreen == null) {
+            playingScreen = new PlayingScreen(this.game, this);
+        }
+        return playingScreen;
+    }
+
     public void PlayLevel(int levelNum) {
 
         // Check if the level we are trying to go to exists
-        int totalLevels = game.getLevelHandler().getLevelCompletionInfo().levelData.size();
+        int totalLevels = game.getLevelHandler().getLevelCompletionInfo().size();
 
-        if(game.currentGalaxy < game.getLevelHandler().getLevelCompletionInfo().levelData.size()/25) {
-            game.setScreen(new PlayingScreen(this.game, this));
+        if(game.currentGalaxy < game.getLevelHandler().getLevelCompletionInfo().size()/25) {
+            getPlayingScreen().LoadLevel(game.currentLevel);
+            game.setScreen(getPlayingScreen());
         }
     }
 
@@ -213,16 +230,17 @@ public class LevelSelectScreen implements Screen {
 
         if(
                 // (8-Dec-2016 Jesse) Here we'll only see if the next level is outside our bounds. If someone goes back to play the level, we should ensure that the mechanics (forwarding to the next level) does not change.
-                //game.currentGalaxy < game.getLevelHandler().getLevelCompletionInfo().levelData.size()/25
+                //game.currentGalaxy < game.getLevelHandler().getLevelCompletionInfo().size()/25
                 //&& game.levelCompletionInfo[(game.currentGalaxy*25)+24][0] != 2
-                game.currentLevel+1 < game.getLevelHandler().getLevelCompletionInfo().levelData.size()) {
+                game.currentLevel+1 < game.getLevelHandler().getLevelCompletionInfo().size()) {
             // Update the levelSelectScreen, too
 
             game.currentLevel++;
 
             ChangeToGalaxy(0); // This will just force us to redraw all the thisLevelIconType's in the levelIcons so that they reflect our progress. If you get rid of this, the levelIcons wont update unless you go Prev then Next galaxy.
 
-            game.setScreen(new PlayingScreen(this.game, this));
+            getPlayingScreen().LoadLevel(game.currentLevel);
+            game.setScreen(getPlayingScreen());
         } else {
             // Since the max value of our current galaxy is always dependent on how many level we are tracking with
             // levelCompletionInfo, here we just stay at levelCompletionScreen if
@@ -247,6 +265,11 @@ public class LevelSelectScreen implements Screen {
         // coordinate system specified by the camera.
         game.batch.setProjectionMatrix(camera.combined);
 
+        // Catch up if the player's progress changed since we last looked (e.g. they just beat a level)
+        if(galaxySummary.IsStale(game.getLevelHandler(), game.currentGalaxy)) {
+            ChangeToGalaxy(0);
+        }
+
         // Check for input
         processInput:
         if(Gdx.input.justTouched() ) {
@@ -255,12 +278,19 @@ public class LevelSelectScreen implements Screen {
             camera.unproject(finger.set(Gdx.input.getX(), Gdx.input.getY(), 0));
 
             // First check if the player is touching one of the prev/next galaxy buttons
-            if(game.currentGalaxy < game.getLevelHandler().getLevelCompletionInfo().levelData.size()/25) { // /25 will give us whole numbers ever 25 levels
+            if(game.currentGalaxy < game.getLevelHandler().getLevelCompletionInfo().size()/25) { // /25 will give us whole numbers ever 25 levels
 
                 if(game.pointInRectangle(nextGalaxyButtonRect, finger.x, finger.y)) {
 
                     // Has the player beaten level 25 yet?
-                    if(game.getLevelHandler().getLevelCompletionInfo().levelData.get((game.currentGalaxy*25)+24)[0] == 2) {
+                    if(galaxySummary.IsComplete() && galaxySummary.nextGalaxyBuilding) {
+                        // Yes, but the next galaxy is still being built in the background. Don't make them sit
+                        // through it on this thread; it'll be ready in a moment. (If nothing's building it, or the
+                        // pregenerator gave up, we go on in below and its levels get built as they're needed.)
+                        if(game.getOptions().playSounds()) { nopeSound.play(); }
+                        message = "Charting the next galaxy...";
+                        messageAlpha = 1.0f;
+                    } else if(galaxySummary.IsComplete()) {
                         if(game.getOptions().playSounds()) { nextGalaxyButtonSound.play(); }
                         // Yep, so let's increment our galaxy
                         ChangeToGalaxy(1);
@@ -302,7 +332,11 @@ public class LevelSelectScreen implements Screen {
                         PlayLevel(game.currentLevel);
                     } else {
                         if(game.getOptions().playSounds()) { nopeSound.play(); }
-                        message = "You can't play that one yet!";
+                        if(galaxySummary.firstPlayable != -1) {
+                            message = "You can't play that one yet! Try " + ((game.currentGalaxy*25)+galaxySummary.firstPlayable+1) + ".";
+                        } else {
+                            message = "You can't play that one yet!";
+                        }
                         messageAlpha = 1.0f;
 
                     }
@@ -342,8 +376,7 @@ public class LevelSelectScreen implements Screen {
 
             // Draw the tile type on top
             // If the player beat the level at or under par, then make the checkmark gold. otherwise, keep it silver.
-            if(game.getLevelHandler().getLevelCompletionInfo().levelData.get(level.levelNum)[3] <= game.getLevelHandler().getLevel(level.levelNum)[52]
-                    && game.getLevelHandler().getLevelCompletionInfo().levelData.get(level.levelNum)[0] == 2) {
+            if(galaxySummary.BeatUnderPar(level.levelNum)) {
                 game.batch.setColor(game.colorYellow);
             } else {
                 game.batch.setColor(1.0f,1.0f,1.0f,0.60f);
@@ -371,12 +404,15 @@ public class LevelSelectScreen implements Screen {
         if(game.currentGalaxy > 0) { // dont draw "previous galaxy" on our first galaxy
             game.batch.draw(previousGalaxyButtonRegion, previousGalaxyButtonRect.x, previousGalaxyButtonRect.y, previousGalaxyButtonRect.width, previousGalaxyButtonRect.height);
         }
-        if(game.currentGalaxy != game.getLevelHandler().getLevelCompletionInfo().levelData.size()/25) { // /25 will give us whole numbers ever 25 levels) { // Don't draw "next galaxy" on our 4th galaxy
+        if(game.currentGalaxy != game.getLevelHandler().getLevelCompletionInfo().size()/25) { // /25 will give us whole numbers ever 25 levels) { // Don't draw "next galaxy" on our 4th galaxy
             // Now let's lock the "next galaxy" button if we haven't completed the 25th level in oru current galaxy
-            if(game.getLevelHandler().getLevelCompletionInfo().levelData.get((game.currentGalaxy*25)+24)[0] != 2) {
+            if(!galaxySummary.IsComplete()) {
                 // display a lock icon over the button
                 game.batch.draw(levelIconRegion[0], nextGalaxyButtonRect.x, nextGalaxyButtonRect.y, nextGalaxyButtonRect.width, nextGalaxyButtonRect.height);
                 game.batch.setColor(0.5f,0.5f,0.5f,0.5f);
+            } else if(galaxySummary.nextGalaxyBuilding) {
+                // Unlocked, but still being built; grey it out until it's ready
+                game.batch.setColor(0.5f,0.5f,0.5f,0.5f);
             }
             game.batch.draw(nextGalaxyButtonRegion, nextGalaxyButtonRect.x, nextGalaxyButtonRect.y, nextGalaxyButtonRect.width, nextGalaxyButtonRect.height);
         }
@@ -398,7 +434,7 @@ public class LevelSelectScreen implements Screen {
 
         game.pixelFont.setColor(game.colorOrange);
         game.pixelFont.draw(game.batch, "GRAVITY GRID", 0, screenHeight, Gdx.graphics.getWidth(), 1, false);
-        game.regularFont.draw(game.batch, game.galaxyName[game.currentGalaxy]+" Galaxy", 5, screenHeight-(1.5f* game.fontSize), this.screenWidth-10, 1, false);
+        game.regularFont.draw(game.batch, game.galaxyName[game.currentGalaxy]+" Galaxy ("+galaxySummary.completed+"/25, "+galaxySummary.underPar+" under par)", 5, screenHeight-(1.5f* game.fontSize), this.screenWidth-10, 1, false);
         game.regularFont.draw(game.batch, "Select a Planetary System:", 5, screenHeight-(2.5f* game.fontSize), this.screenWidth-10, 1, false);
 
         game.batch.end();
@@ -413,7 +449,7 @@ public class LevelSelectScreen implements Screen {
 
     @Override
     public void show() {
-
+        game.assets.Enter(AssetLoader.SCREEN_LEVEL_SELECT);
     }
 
     @Override
@@ -433,6 +469,10 @@ public class LevelSelectScreen implements Screen {
 
     @Override
     public void dispose() {
+        if(playingScreen != null) {
+            playingScreen.dispose();
+            playingScreen = null;
+        }
     }
 
 }
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+/**
+ * Finds the real minimum number of moves needed to beat a level.
+ *
+ * The generator writes the number of random moves it happened to make into level[52], which is only an upper bound
+ * (the player can often do better). This runs an iterative-deepening A* (IDA*) over the bitboard version of the level
+ * using the same movement rules as the game: a planet can only move to an empty tile, reds must land diagonally to
+ * another red, blues up/down/left/right of another blue, and greens where no other green is touching.
+ *
+ * The heuristic is admissible because a single move only changes one color's total, and by at most the biggest
+ * difference between two tile values.
+ *
+ * Boards we've already searched go into a TranspositionTable, so when a different move order lands on the same
+ * layout we can skip it instead of searching the whole subtree again. This is what keeps the complexity 8 levels
+ * after level 75 fast.
+ *
+ * Not thread safe; use one solver per thread.
+ */
+
+public class LevelSolver {
+
+    public static final int UNSOLVED = -1;
+
+    // The most a single move can change a color's score (a 10 tile to a 0 tile)
+    private static final int MAX_STEP = 10;
+
+    // VALUES_BETWEEN[lo][hi] is every tile whose value is in [lo, hi]
+    private static final long[][] VALUES_BETWEEN = new long[11][11];
+
+    static {
+        for(int lo = 0; lo <= 10; lo++) {
+            long mask = 0;
+            for(int hi = lo; hi <= 10; hi++) {
+                mask |= Bitboard.VALUE_MASK[hi];
+                VALUES_BETWEEN[lo][hi] = mask;
+            }
+        }
+    }
+
+    private static final int FOUND = -1;
+
+    // The table keeps move counts in a byte
+    private static final int MAX_STORED = 255;
+
+    // Give up after this many nodes so a nasty level can't stall generation. The caller keeps the generator's par.
+    private int maxNodes;
+
+    private long obstacles;
+    private int redNeeded;
+    private int blueNeeded;
+    private int greenNeeded;
+
+    private long nodes;
+
+    private final TranspositionTable table;
+
+    // Pars we've already worked out, by LevelCanonicalizer.hash(), so a level and its rotations/reflections only get
+    // solved once. Wiped when it gets big so it can't grow forever.
+    private final LevelIndex parCache = new LevelIndex(PAR_CACHE_LIMIT);
+    private static final int PAR_CACHE_LIMIT = 4096;
+
+    public LevelSolver() {
+        this(2000000);
+    }
+
+    public LevelSolver(int maxNodes) {
+        // 2^16 entries is 768KB, which is plenty for anything the generator makes
+        this(maxNodes, new TranspositionTable(16));
+    }
+
+    public LevelSolver(int maxNodes, TranspositionTable table) {
+        this.maxNodes = maxNodes;
+        this.table = table;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public long getNodesSearched() {
+        return nodes;
+    }
+
+    // Solve with the level's own par as the deepest we'll look
+    public int solve(int[] level) {
+        return solve(level, level[52]);
+    }
+
+    // Returns the minimum number of moves to beat `level`, or UNSOLVED if there is no solution within maxMoves
+    // (or we ran out of node budget looking for one).
+    public int solve(int[] level, int maxMoves) {
+
+        long key = LevelCanonicalizer.hash(level);
+        int cached = parCache.get(key);
+        if(cached != LevelIndex.MISSING) {
+            nodes = 0;
+            return cached <= maxMoves ? cached : UNSOLVED;
+        }
+
+        int par = search(level, maxMoves);
+
+        // Only remember real answers; UNSOLVED might just mean maxMoves was too small this time
+        if(par != UNSOLVED) {
+            if(parCache.size() >= PAR_CACHE_LIMIT) {
+                parCache.clear();
+            }
+            parCache.put(key, par);
+        }
+
+        return par;
+    }
+
+    private int search(int[] level, int maxMoves) {
+
+        long red = 0;
+        long blue = 0;
+        long green = 0;
+        obstacles = 0;
+
+        for(int a = 0; a < Bitboard.TILES; a++) {
+            switch(level[a]) {
+                case Bitboard.NONE: break;
+                case Bitboard.RED: red |= Bitboard.bit(a); break;
+                case Bitboard.BLUE: blue |= Bitboard.bit(a); break;
+                case Bitboard.GREEN: green |= Bitboard.bit(a); break;
+                default: obstacles |= Bitboard.bit(a); break; // Asteroids, suns, and blocked tiles can't be moved to
+            }
+        }
+
+        redNeeded = level[49];
+        blueNeeded = level[50];
+        greenNeeded = level[51];
+
+        int redTotal = Bitboard.total(red);
+        int blueTotal = Bitboard.total(blue);
+        int greenTotal = Bitboard.total(green);
+
+        nodes = 0;
+        table.clear(); // Targets aren't part of the hash, so entries from the last level mean nothing now
+        long hash = TranspositionTable.hash(level);
+
+        int bound = estimate(redNeeded - redTotal) + estimate(blueNeeded - blueTotal) + estimate(greenNeeded - greenTotal);
+
+        while(bound <= maxMoves) {
+            int next = search(red, blue, green, hash, redTotal, blueTotal, greenTotal, 0, bound);
+
+            if(next == FOUND) {
+                return bound;
+            }
+            if(next == Integer.MAX_VALUE || nodes >= maxNodes) {
+                return UNSOLVED;
+            }
+            bound = next;
+        }
+
+        return UNSOLVED;
+    }
+
+    // Lower bound on the moves needed to fix a color that is `difference` away from its target
+    private static int estimate(int difference) {
+        if(difference == 0) {
+            return 0;
+        }
+        if(difference < 0) {
+            difference = -difference;
+        }
+        return (difference + MAX_STEP - 1) / MAX_STEP;
+    }
+
+    // Depth-first search below `bound`. Returns FOUND, or the smallest f-cost that went over the bound.
+    // `hash` is the Zobrist hash of the board, kept up to date as planets move.
+    private int search(long red, long blue, long green, long hash, int redTotal, int blueTotal, int greenTotal, int moves, int bound) {
+
+        nodes++;
+
+        int redDiff = redNeeded - redTotal;
+        int blueDiff = blueNeeded - blueTotal;
+        int greenDiff = greenNeeded - greenTotal;
+
+        if(redDiff == 0 && blueDiff == 0 && greenDiff == 0) {
+            return FOUND;
+        }
+
+        if(nodes >= maxNodes) {
+            return Integer.MAX_VALUE;
+        }
+
+        // Have we already shown this board can't be solved in the moves we have left?
+        int known = table.probe(hash);
+        if(known >= bound - moves) {
+            return moves + known + 1;
+        }
+
+        int redEstimate = estimate(redDiff);
+        int blueEstimate = estimate(blueDiff);
+        int greenEstimate = estimate(greenDiff);
+
+        long empty = Bitboard.FULL & ~(red | blue | green | obstacles);
+        int remaining = bound - moves - 1; // moves left after this one
+        int min = Integer.MAX_VALUE;
+
+        for(int type = Bitboard.RED; type <= Bitboard.GREEN; type++) {
+
+            long planets;
+            int diff;
+            int othersEstimate;
+
+            switch(type) {
+                case Bitboard.RED: planets = red; diff = redDiff; othersEstimate = blueEstimate + greenEstimate; break;
+                case Bitboard.BLUE: planets = blue; diff = blueDiff; othersEstimate = redEstimate + greenEstimate; break;
+                default: planets = green; diff = greenDiff; othersEstimate = redEstimate + blueEstimate; break;
+            }
+
+            // How far off this color can still be after the move and stay inside the bound
+            int slack = remaining - othersEstimate;
+            if(slack < 0) {
+                // Even a perfect move for this color can't fix the others in time
+                int f = moves + 1 + othersEstimate;
+                if(f < min) { min = f; }
+                continue;
+            }
+
+            long m = planets;
+            while(m != 0) {
+                int from = Long.numberOfTrailingZeros(m);
+                m &= m - 1;
+
+                long fromBit = Bitboard.bit(from);
+                long others = planets & ~fromBit;
+                long destinations = empty & Bitboard.legalDestinations(type, others);
+
+                if(destinations == 0) {
+                    continue;
+                }
+
+                // After moving, the color is off by diff - (value[to] - value[from]). Keep only the destinations
+                // whose value leaves it within slack*MAX_STEP of the target.
+                int center = Bitboard.VALUE[from] + diff;
+                int lo = center - (slack * MAX_STEP);
+                int hi = center + (slack * MAX_STEP);
+                if(lo < 0) { lo = 0; }
+                if(hi > 10) { hi = 10; }
+
+                long inBound = lo <= hi ? destinations & VALUES_BETWEEN[lo][hi] : 0;
+
+                if(inBound != destinations) {
+                    // Something got cut, remember the cheapest f-cost we skipped for the next iteration
+                    int f = moves + 1 + othersEstimate + slack + 1;
+                    if(f < min) { min = f; }
+                }
+
+                while(inBound != 0) {
+                    int to = Long.numberOfTrailingZeros(inBound);
+                    inBound &= inBound - 1;
+
+                    long moved = (planets & ~fromBit) | Bitboard.bit(to);
+                    long movedHash = TranspositionTable.move(hash, type, from, to);
+                    int delta = Bitboard.VALUE[to] - Bitboard.VALUE[from];
+
+                    int t;
+                    switch(type) {
+                        case Bitboard.RED: t = search(moved, blue, green, movedHash, redTotal + delta, blueTotal, greenTotal, moves + 1, bound); break;
+                        case Bitboard.BLUE: t = search(red, moved, green, movedHash, redTotal, blueTotal + delta, greenTotal, moves + 1, bound); break;
+                        default: t = search(red, blue, moved, movedHash, redTotal, blueTotal, greenTotal + delta, moves + 1, bound); break;
+                    }
+
+                    if(t == FOUND) {
+                        return FOUND;
+                    }
+                    if(t < min) { min = t; }
+                }
+            }
+        }
+
+        // Nothing under here works. Every path costs at least `min`, so there's no solution from this board in fewer
+        // than min - moves moves. (Don't store anything if we bailed out on the node budget, it isn't proven.)
+        if(nodes < maxNodes) {
+            table.store(hash, Math.min(min - moves - 1, MAX_STORED));
+        }
+
+        return min;
+    }
+}
@@ -54,10 +54,12 @@ public class MainMenuScreen implements Screen {
 		camera = new OrthographicCamera();
 		camera.setToOrtho(false, game.screenWidth, game.screenHeight);
 		
+		game.assets.Enter(AssetLoader.SCREEN_MAIN_MENU);
+
 		//mainMenuBackground = game.assets.getAssetManager().get("mainmenubg.jpg", Texture.class);
-		mainMenuBackgroundRegion = game.assets.getAtlas().findRegion("mainmenubg");
+		mainMenuBackgroundRegion = game.assets.findRegion("mainmenubg");
 		//buttonContinue = game.assets.getAssetManager().get("button/continue.png", Texture.class);
-		buttonContinueRegion = game.assets.getAtlas().findRegion("button/continue");
+		buttonContinueRegion = game.assets.findRegion("button/continue");
 
 
 		buttonContinueRect = new Rectangle((Gdx.graphics.getWidth()/2)-200, (Gdx.graphics.getHeight()/3)-200, 400, 400);
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
+import com.badlogic.gdx.graphics.g2d.ParticleEmitter;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Runs the pooled particle effects (the starbursts) for the PlayingScreen, so a burst of them can't stall a frame.
+ *
+ *   Pools are filled when the screen is made, and every effect in them has already been run once, so its particles
+ *   exist before the first real burst. Making an effect copies every emitter, and a new emitter makes its particles the
+ *   first time it emits; both used to happen mid-game, right when a level started.
+ *
+ *   Each device gets a level of detail (DeviceLod()): on slower phones every effect emits fewer particles.
+ *
+ *   There's a budget of live particles. An effect only starts if what it could emit fits in what's left; otherwise
+ *   it's dropped. It's decoration, so skipping one is better than a slow frame.
+ *
+ *   At most MAX_STARTS_PER_FRAME effects start in a frame. The rest wait their turn, so the burst on every planet at
+ *   level start spreads over a few frames instead of landing on one.
+ *
+ * Effects that aren't pooled (the level complete fireworks) can go through Prepare() to get the same detail level
+ * and warm-up.
+ */
+
+final class ParticleManager {
+
+    // Live particles allowed at full detail (scaled down with the level of detail)
+    static final int PARTICLE_BUDGET = 600;
+
+    static final int MAX_STARTS_PER_FRAME = 4;
+
+    // Starts waiting for a later frame; any more than this get dropped
+    static final int MAX_PENDING = 64;
+
+    // A ParticleEffectPool whose effects get our level of detail and a warm-up when they're made
+    private final class LodPool extends ParticleEffectPool {
+        int cost; // The most particles one of these can have alive at once
+        int created;
+
+        LodPool(ParticleEffect template, int max) {
+            super(template, max, max);
+        }
+
+        @Override
+        protected PooledEffect newObject() {
+            PooledEffect effect = super.newObject();
+            Prepare(effect);
+            cost = CountMaxParticles(effect);
+            created++;
+            return effect;
+        }
+    }
+
+    private final float lod;
+    private final int budget;
+
+    private final Array<LodPool> pools = new Array<LodPool>();
+
+    // Running effects, and which pool each came from
+    private final Array<ParticleEffectPool.PooledEffect> running = new Array<ParticleEffectPool.PooledEffect>(false, 64);
+    private final Array<LodPool> runningPools = new Array<LodPool>(false, 64);
+    private int runningCost;
+
+    // Effects waiting to start, oldest first: kind, x and y
+    private final int[] pendingKind = new int[MAX_PENDING];
+    private final float[] pendingX = new float[MAX_PENDING];
+    private final float[] pendingY = new float[MAX_PENDING];
+    private int pendingCount;
+
+    // Counters
+    private int activeParticles;
+    private int peakParticles;
+    private int started;
+    private int deferred;
+    private int dropped;
+
+    ParticleManager(float lod) {
+        this.lod = lod;
+        this.budget = Math.max(1, (int) (PARTICLE_BUDGET * lod));
+    }
+
+    // Full detail on anything with four or more cores and a decent heap, half on everything else
+    static float DeviceLod() {
+        if(Gdx.app == null || Gdx.app.getType() != Application.ApplicationType.Android) {
+            return 1f;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        if(runtime.availableProcessors() >= 4 && runtime.maxMemory() >= 128L * 1024 * 1024) {
+            return 1f;
+        }
+        return 0.5f;
+    }
+
+    float getLod() { return this.lod; }
+    int getBudget() { return this.budget; }
+    int getActiveEffects() { return this.running.size; }
+    int getActiveParticles() { return this.activeParticles; }
+    int getPeakParticles() { return this.peakParticles; }
+    int getPending() { return this.pendingCount; }
+    int getStarted() { return this.started; }
+    int getDeferred() { return this.deferred; }
+    int getDropped() { return this.dropped; }
+
+    // Add a kind of effect made from `template`, with `prewarm` of them made (and warmed up) now and at most `max`
+    // kept. Returns the kind to pass to Spawn().
+    int Register(ParticleEffect template, int prewarm, int max) {
+        LodPool pool = new LodPool(template, max);
+
+        Array<ParticleEffectPool.PooledEffect> warm = new Array<ParticleEffectPool.PooledEffect>(prewarm);
+        for(int a = 0; a < prewarm; a++) {
+            warm.add(pool.obtain());
+        }
+        pool.freeAll(warm);
+
+        // Even with nothing prewarmed we want to know what one costs
+        if(prewarm == 0) {
+            pool.free(pool.obtain());
+        }
+
+        pools.add(pool);
+        return pools.size - 1;
+    }
+
+    // Give `effect` our level of detail and run it once, so its particles are made now and not on its first frame
+    void Prepare(ParticleEffect effect) {
+        if(lod < 1f) {
+            for(ParticleEmitter emitter : effect.getEmitters()) {
+                ParticleEmitter.ScaledNumericValue emission = emitter.getEmission();
+                emission.setHigh(emission.getHighMin() * lod, emission.getHighMax() * lod);
+                emission.setLow(emission.getLowMin() * lod, emission.getLowMax() * lod);
+                emitter.setMinParticleCount((int) (emitter.getMinParticleCount() * lod));
+                emitter.setMaxParticleCount(Math.max(1, (int) (emitter.getMaxParticleCount() * lod)));
+            }
+        }
+
+        effect.start();
+        for(int a = 0; a < 10; a++) {
+            effect.update(0.1f);
+        }
+        effect.reset();
+    }
+
+    private static int CountMaxParticles(ParticleEffect effect) {
+        int count = 0;
+        for(ParticleEmitter emitter : effect.getEmitters()) {
+            count += emitter.getMaxParticleCount();
+        }
+        return count;
+    }
+
+    // Start an effect of `kind` at (x, y), this frame if there's room or a later one if not. Returns false if it was
+    // dropped because too many are already waiting.
+    boolean Spawn(int kind, float x, float y) {
+        if(pendingCount == MAX_PENDING) {
+            dropped++;
+            return false;
+        }
+        pendingKind[pendingCount] = kind;
+        pendingX[pendingCount] = x;
+        pendingY[pendingCount] = y;
+        pendingCount++;
+        return true;
+    }
+
+    // Start what we can of the waiting effects, then draw (and update) everything that's running and put finished
+    // effects back in their pools. Call between batch.begin() and batch.end().
+    void Draw(SpriteBatch batch, float delta) {
+        StartPending();
+
+        int particles = 0;
+        for(int i = running.size - 1; i >= 0; i--) {
+            ParticleEffectPool.PooledEffect effect = running.get(i);
+            effect.draw(batch, delta);
+
+            if(effect.isComplete()) {
+                Finish(i);
+            } else {
+                for(ParticleEmitter emitter : effect.getEmitters()) {
+                    particles += emitter.getActiveCount();
+                }
+            }
+        }
+
+        activeParticles = particles;
+        peakParticles = Math.max(peakParticles, particles);
+    }
+
+    private void StartPending() {
+        int starts = Math.min(pendingCount, MAX_STARTS_PER_FRAME);
+
+        for(int a = 0; a < starts; a++) {
+            LodPool pool = pools.get(pendingKind[a]);
+
+            if(runningCost + pool.cost > budget) {
+                dropped++;
+                continue;
+            }
+
+            ParticleEffectPool.PooledEffect effect = pool.obtain();
+            effect.setPosition(pendingX[a], pendingY[a]);
+            running.add(effect);
+            runningPools.add(pool);
+            runningCost += pool.cost;
+            started++;
+        }
+
+        // Move the rest up to the front for next frame
+        int left = pendingCount - starts;
+        if(left > 0) {
+            System.arraycopy(pendingKind, starts, pendingKind, 0, left);
+            System.arraycopy(pendingX, starts, pendingX, 0, left);
+            System.arraycopy(pendingY, starts, pendingY, 0, left);
+            deferred += left;
+        }
+        pendingCount = left;
+    }
+
+    private void Finish(int i) {
+        runningCost -= runningPools.get(i).cost;
+        running.removeIndex(i).free();
+        runningPools.removeIndex(i);
+    }
+
+    // Stop everything (running and waiting) and put it all back in the pools
+    void Clear() {
+        for(int i = running.size - 1; i >= 0; i--) {
+            Finish(i);
+        }
+        pendingCount = 0;
+        activeParticles = 0;
+    }
+
+    void Dispose() {
+        Clear();
+        for(LodPool pool : pools) {
+            pool.clear();
+        }
+        pools.clear();
+    }
+
+    @Override
+    public String toString() {
+        int created = 0;
+        for(LodPool pool : pools) {
+            created += pool.created;
+        }
+        return running.size + " effects, " + activeParticles + " particles (peak " + peakParticles + ", budget " + budget
+                + ", detail " + lod + "), " + started + " started, " + deferred + " deferred a frame, " + dropped
+                + " dropped, " + created + " effects made";
+    }
+}
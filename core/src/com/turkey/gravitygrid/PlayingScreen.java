@@ -19,7 +19,6 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.TimeUtils;
 
 import static com.turkey.gravitygrid.Tile.TileType.BLUEPLANET;
@@ -40,8 +39,8 @@ public class PlayingScreen implements Screen {
 
     public int levelCompleteMultiplier;
 
-    // Tutorial overlay
-    TextureRegion[] tutorialOverlayRegion;
+    // Tutorial overlay for this level, or null if it doesn't have one
+    TextureRegion tutorialOverlayRegion;
 
     // On create, these are loaded according to the currentLevel that is managed in the GravityGrid class
     public int thisLevelRedNeeded;
@@ -62,9 +61,7 @@ public class PlayingScreen implements Screen {
     public ParticleEffect levelCompleteFireworks;
     public ParticleEffect backgroundStarfieldParticles;
     public ParticleEffect goodMoveStarburst;
-    public ParticleEffectPool goodMoveStarburstPool;
     public ParticleEffect badMoveStarburst;
-    public ParticleEffectPool badMoveStarburstPool;
 
     // In-game Menu
     TextureRegion inGameMenuSoundOnButtonRegion;
@@ -85,8 +82,10 @@ public class PlayingScreen implements Screen {
 
     Music backgroundMusic;
 
-    // An array of pooled effects to manage all our particle effect systems
-    Array<ParticleEffectPool.PooledEffect> particleEffects = new Array();
+    // Runs all the pooled particle effects (the starbursts), within a particle budget for this device
+    ParticleManager particles;
+    int goodMoveStarburstKind;
+    int badMoveStarburstKind;
 
     public enum gameState {
         READY, 						// Process tile selections
@@ -128,233 +127,39 @@ public class PlayingScreen implements Screen {
 
     }
 
-    // GoodMoveVerified is only used so that I don't have to continually write all these checks for the destination
-    // tile type being equal to the selectedType and not being the selectedNum
-    private boolean GoodMoveVerified(int tileToCheck, Tile.TileType selectedType, int selectedNum) {
-        if( this.tile.get(tileToCheck).type == selectedType && this.tile.get(tileToCheck).tileNum != selectedNum ) {
-            System.out.println("Good tile "+tileToCheck+" found for selected num "+selectedNum);
-            return true;
-        } else {
-            return false;
-        }
-    }
-
     // CanMove function must be ran during gameState.TILE_SELECTED, because it iterates through the tiles and
     // finds the selected one, determines its GravityGrid.TileType, and then checks the tiles around the tileNum argument
     // to see if the player can move the selected planet type there.
     // As of August 2015, the rules are that each planet type must move to a tile according to its rules that touches
     // another planet of the same type. Greens can be touching any way, blues only top,bottom,or size, and red only
     // diagonally.
+    // The rules themselves are Bitboard.canMove(), the same ones the level generator and LevelSolver use, so any line
+    // the solver finds (and par is worked out from) can be played here.
     private boolean canMoveAccordingToRules(int destinationTileNum) {
 
-        // First determine the select tile's tileNum so we can get it's GravityGrid.GravityGrid.TileType
-        Tile.TileType selectedType = Tile.TileType.NONE; // init'd
-        int selectedNum = 0; // init'd
-
-        // This `outcome` is what is returned by this function. If outcome = true, then the function has determined
-        // that the tile in question "can move according to rules"
-        boolean outcome = false;
-
-        // TODO: First thing this should check is whether destinationTileNum is an illegal space (asteroid, sun, etc). If it is, we can return false right here and skip all the logic.
-
-
-        // Loop through tiles and find the selected one
-        findSelected:
+        // Find the selected tile, and where every OTHER planet of its type is. The selected one doesn't count: it's
+        // right next to where it's moving, but it won't be there anymore once it moves.
+        Tile.TileType selectedType = Tile.TileType.NONE;
         for (Tile tile : this.tile) {
-
-            // Check for selected tile
             if (tile.status == Tile.TileStatus.SELECTED) {
-                // Extract the type of the selected tile so we can assign the appropriate rules to the planet type
                 selectedType = tile.type;
-                selectedNum = tile.tileNum;
-                break findSelected;
+                break;
             }
-
         }
 
-
-        // Now we're in the meat and potatoes. The function seeks to answer: can a tile of type selectedType move to
-        // the destinationTileNum type?
-
-        // We'll have to switch the selected type so we can apply the appropriate rules.
-        // (13-Aug-2015 Jesse) I'm running into a problem where the rules are checking against the selected tile,
-        // because technically that is a tile that is next to the next tile. In other words, I can click a blue
-        // planet along a straight path away from other planets because the tile I am moving to is next to a blue
-        // planet tile -- the one I am on! We need a way to omit the selected tile to ensure that we're only counting OTHER tiles of the same type
-        // (13-Aug-2015 Jesse) I discovered that if I added '&& tile.tileNum != selectedNum' to the part where I check whether the tile's type of the adjacent one is the same type of planet as the selected tile, I can ensure that I don't count any adjacent tiles of the same type that are in fact the selected tile (and thus only account for non-selected adjacent tiles)
+        long others = 0;
+        for (Tile tile : this.tile) {
+            if (tile.type == selectedType && tile.status != Tile.TileStatus.SELECTED) {
+                others |= Bitboard.bit(tile.tileNum);
+            }
+        }
 
         switch (selectedType) {
-
-            // Use the following grid of tileNum values for reference:
-            //
-            // 42 43 44 45 46 47 48
-            // 35 36 37 38 39 40 41
-            // 28 29 30 31 32 33 34
-            // 21 22 23 24 25 26 27
-            // 14 15 16 17 18 19 20
-            // 07 08 09 10 11 12 13
-            // 00 01 02 03 04 05 06
-
-            case REDPLANET:
-                // First check the body of the board. If the body doesn't return true, try the edges and corners (the most complicated of the logic because we check them each individually).
-                if (this.game.IntArrayContains(this.game.boardMiddle, destinationTileNum)) {
-                    // Check the middle section of the board (i.e., all tiles except edges and corners)
-                    if (
-                            (GoodMoveVerified(destinationTileNum + 8, selectedType, selectedNum))
-                            || (GoodMoveVerified(destinationTileNum + 6, selectedType, selectedNum))
-                            || (GoodMoveVerified(destinationTileNum - 6, selectedType, selectedNum))
-                            || (GoodMoveVerified(destinationTileNum - 8, selectedType, selectedNum))) {
-                        outcome = true;
-                        //System.out.println("destinationTileNum: " + destinationTileNum + ". SelectedNum: " + selectedNum);
-                        return outcome; // Leave this function immediately!
-                    }
-
-                } else {
-                    // If we're here, then we're on an edge or corner tile. We need to check these manually... Previous attempts at complicated if-else statements have proven unwieldy and confusing.
-                    // So why not this switch in a switch?
-
-                    switch (destinationTileNum) {
-                        case 42: outcome = GoodMoveVerified(36,selectedType,selectedNum); break;
-                        case 43:
-                        case 44:
-                        case 45:
-                        case 46:
-                        case 47: outcome = (GoodMoveVerified(destinationTileNum-6,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum-8,selectedType,selectedNum)); break;
-                        case 48: outcome = GoodMoveVerified(40,selectedType,selectedNum); break;
-                        case 41:
-                        case 34:
-                        case 27:
-                        case 20:
-                        case 13: outcome = (GoodMoveVerified(destinationTileNum+6,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum-8,selectedType,selectedNum)); break;
-                        case  6: outcome = GoodMoveVerified(12,selectedType,selectedNum); break;
-                        case  5:
-                        case  4:
-                        case  3:
-                        case  2:
-                        case  1: outcome = (GoodMoveVerified(destinationTileNum+6,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum+8,selectedType,selectedNum)); break;
-                        case  0: outcome = GoodMoveVerified(8,selectedType,selectedNum); break;
-                        case  7:
-                        case 14:
-                        case 21:
-                        case 28:
-                        case 35: outcome = (GoodMoveVerified(destinationTileNum+8,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum-6,selectedType,selectedNum)); break;
-                        default: break;
-                    }
-
-                    return outcome; // Break immediately because there's no point in continuing
-                }
-
-                    break;
-                case BLUEPLANET:
-                    // First check the body of the board. If the body doesn't return true, try the edges and corners (the most complicated of the logic because we check them each individually).
-                    if (this.game.IntArrayContains(this.game.boardMiddle, destinationTileNum)) {
-                        // Check the middle section of the board (i.e., all tiles except edges and corners)
-                        if (
-                            (GoodMoveVerified(destinationTileNum + 1, selectedType, selectedNum))
-                            || (GoodMoveVerified(destinationTileNum - 1, selectedType, selectedNum))
-                            || (GoodMoveVerified(destinationTileNum + 7, selectedType, selectedNum))
-                            || (GoodMoveVerified(destinationTileNum - 7, selectedType, selectedNum))) {
-                                outcome = true;
-                            //System.out.println("destinationTileNum: " + destinationTileNum + ". SelectedNum: " + selectedNum);
-                            return outcome; // Leave this function immediately!
-                        }
-
-                    } else {
-                        // If we're here, then we're on an edge or corner tile. We need to check these manually... Previous attempts at complicated if-else statements have proven unwieldy and confusing.
-                        // So why not this switch in a switch?
-
-                        switch (destinationTileNum) {
-                            case 42: outcome = ( GoodMoveVerified(35,selectedType,selectedNum) || GoodMoveVerified(43,selectedType,selectedNum) ); break;
-                            case 43:
-                            case 44:
-                            case 45:
-                            case 46:
-                            case 47: outcome = (GoodMoveVerified(destinationTileNum-1,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum+1,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum-7,selectedType,selectedNum)); break;
-                            case 48: outcome = ( GoodMoveVerified(47,selectedType,selectedNum) || GoodMoveVerified(41,selectedType,selectedNum) ); break;
-                            case 41:
-                            case 34:
-                            case 27:
-                            case 20:
-                            case 13: outcome = (GoodMoveVerified(destinationTileNum-1,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum-7,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum+7,selectedType,selectedNum)); break;
-                            case  6: outcome = ( GoodMoveVerified(5,selectedType,selectedNum) || GoodMoveVerified(13,selectedType,selectedNum) ); break;
-                            case  5:
-                            case  4:
-                            case  3:
-                            case  2:
-                            case  1: outcome = (GoodMoveVerified(destinationTileNum-1,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum+1,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum+7,selectedType,selectedNum)); break;
-                            case  0: outcome = ( GoodMoveVerified(7,selectedType,selectedNum) || GoodMoveVerified(1,selectedType,selectedNum) ); break;
-                            case  7:
-                            case 14:
-                            case 21:
-                            case 28:
-                            case 35: outcome = (GoodMoveVerified(destinationTileNum-7,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum+1,selectedType,selectedNum) || GoodMoveVerified(destinationTileNum+7,selectedType,selectedNum)); break;
-                            default: break;
-                        }
-
-                        return outcome; // Break immediately because there's no point in continuing
-                    }
-
-                    break;
-
-            case GREENPLANET:
-                // First check the body of the board. If the body doesn't return true, try the edges and corners (the most complicated of the logic because we check them each individually).
-                if (this.game.IntArrayContains(this.game.boardMiddle, destinationTileNum)) {
-                    // Check the middle section of the board (i.e., all tiles except edges and corners)
-                    if (    // For green planets, it's left, right, and all three on top and three on bottom
-                            !GoodMoveVerified(destinationTileNum - 1, selectedType, selectedNum)
-                            && !GoodMoveVerified(destinationTileNum - 8, selectedType, selectedNum)
-                            && !GoodMoveVerified(destinationTileNum - 7, selectedType, selectedNum)
-                            && !GoodMoveVerified(destinationTileNum - 6, selectedType, selectedNum)
-                            && !GoodMoveVerified(destinationTileNum + 1, selectedType, selectedNum)
-                            && !GoodMoveVerified(destinationTileNum + 6, selectedType, selectedNum)
-                            && !GoodMoveVerified(destinationTileNum + 7, selectedType, selectedNum)
-                            && !GoodMoveVerified(destinationTileNum + 8, selectedType, selectedNum)
-                            ) {
-                        outcome = true;
-                        //System.out.println("destinationTileNum: " + destinationTileNum + ". SelectedNum: " + selectedNum);
-                        return outcome; // Leave this function immediately!
-                    }
-
-                } else {
-                    // If we're here, then we're on an edge or corner tile. We need to check these manually... Previous attempts at complicated if-else statements have proven unwieldy and confusing.
-                    // So why not this switch in a switch?
-
-                    switch (destinationTileNum) {
-                        case 42: outcome = ( !GoodMoveVerified(35,selectedType,selectedNum) && !GoodMoveVerified(43,selectedType,selectedNum) && !GoodMoveVerified(36,selectedType,selectedNum) ); break;
-                        case 43:
-                        case 44:
-                        case 45:
-                        case 46:
-                        case 47: outcome = (!GoodMoveVerified(destinationTileNum-1,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum+1,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum-6,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum-7,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum-8,selectedType,selectedNum)); break;
-                        case 48: outcome = ( !GoodMoveVerified(47,selectedType,selectedNum) && !GoodMoveVerified(40,selectedType,selectedNum) && !GoodMoveVerified(41,selectedType,selectedNum)); break;
-                        case 41:
-                        case 34:
-                        case 27:
-                        case 20:
-                        case 13: outcome = ( !GoodMoveVerified(destinationTileNum+6,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum+7,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum-1,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum-7,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum-8,selectedType,selectedNum)); break;
-                        case  6: outcome = ( !GoodMoveVerified(5,selectedType,selectedNum) && !GoodMoveVerified(12,selectedType,selectedNum) && !GoodMoveVerified(13,selectedType,selectedNum) ); break;
-                        case  5:
-                        case  4:
-                        case  3:
-                        case  2:
-                        case  1: outcome = ( !GoodMoveVerified(destinationTileNum+6,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum+7,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum+8,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum-1,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum+1,selectedType,selectedNum)); break;
-                        case  0: outcome = ( !GoodMoveVerified(7,selectedType,selectedNum) && !GoodMoveVerified(8,selectedType,selectedNum) && !GoodMoveVerified(1,selectedType,selectedNum) ); break;
-                        case  7:
-                        case 14:
-                        case 21:
-                        case 28:
-                        case 35: outcome = ( !GoodMoveVerified(destinationTileNum+1,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum+7,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum+8,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum-7,selectedType,selectedNum) && !GoodMoveVerified(destinationTileNum-8,selectedType,selectedNum)); break;
-                        default: break;
-                    }
-
-                    return outcome; // Break immediately because there's no point in continuing
-                }
-
-                break;
-                default:
-                    break;
-            }
-        return outcome;
+            case REDPLANET: return Bitboard.canMove(Bitboard.RED, others, destinationTileNum);
+            case BLUEPLANET: return Bitboard.canMove(Bitboard.BLUE, others, destinationTileNum);
+            case GREENPLANET: return Bitboard.canMove(Bitboard.GREEN, others, destinationTileNum);
+            default: return false;
+        }
     }
 
     private ArrayList<Tile> tile; // Single array of tiles, instead of multidimensional
@@ -383,7 +188,35 @@ public class PlayingScreen implements Screen {
     boolean tryingToReset; // If this is true, user has already pushed the reset button once.
     int holdToResetCounter;
 
-    private TextureRegion[] backgroundRegion;
+    // This galaxy's background. Each one is its own atlas, and so is each tutorial overlay; see LoadLevelAtlases().
+    private TextureRegion backgroundRegion;
+    private int backgroundAtlasNumber = -1;    // The galaxy backgroundRegion is from
+    private int pendingBackgroundNumber = -1;  // The galaxy whose background we're waiting on, if any
+    private boolean tutorialPending;           // This level has an overlay and it isn't loaded yet
+    static final String GALAXY_ATLAS = "galaxy";
+    static final String TUTORIAL_ATLAS = "tutorial";
+
+    // The atlases we've asked AssetLoader for: this level's and the next one's (plus the background we're showing,
+    // until the new one is in)
+    private final ArrayList<String> heldAtlases = new ArrayList<String>();
+    private final ArrayList<String> levelAtlases = new ArrayList<String>();
+
+    // Layers for drawQueue, bottom to top. Within a layer sprites get regrouped by atlas page, so things that overlap
+    // each other need layers of their own. Suns and their flares are three tiles wide and more, so they go under the
+    // planets; the flare from a planet landing grows even bigger and goes over everything.
+    static final int LAYER_SUNS = 0;
+    static final int LAYER_SUN_FLARES = 1;
+    static final int LAYER_PLANETS = 2;        // Planets and asteroids, one per tile, so they never overlap
+    static final int LAYER_NUMERALS = 3;       // The value on top of each planet
+    static final int LAYER_SELECTED_BOTTOM = 4;
+    static final int LAYER_SELECTED_TOP = 5;
+    static final int LAYER_MOVE_FLARES = 6;
+
+    private final DrawQueue drawQueue = new DrawQueue();
+
+    // The background and the empty tiles (with their numbers), drawn once into a FrameBuffer and redrawn only when a
+    // planet moves, a new level starts, or the screen changes size. See PaintStaticLayer().
+    private StaticLayer staticLayer;
     TextureRegion tileSunFlareRegion;
     TextureRegion tileSunRegion;
     TextureRegion[] tileAsteroidRegion;
@@ -409,6 +242,7 @@ public class PlayingScreen implements Screen {
     Sound inGameMenuLevelSelectButtonSound;
 
     Rectangle finger;
+    private final Vector3 touchPoint = new Vector3(); // Where the last touch landed, unprojected; reused every frame
     private GravityGrid game;
 
     OrthographicCamera camera;
@@ -417,42 +251,38 @@ public class PlayingScreen implements Screen {
 
     LevelSelectScreen parentScreen;
 
+    // There's only ever one of these; LevelSelectScreen makes it the first time a level is played and keeps it.
+    // Everything in here is the same for every level (regions, sounds, pools, the tiles themselves), so it's done
+    // once. Call LoadLevel() to put a level on the board before showing the screen.
     PlayingScreen(GravityGrid game, LevelSelectScreen parent) {
 
         this.game = game;
         parentScreen = parent;
 
+        // Make sure our atlases are loaded before we look anything up in them
+        this.game.assets.Enter(AssetLoader.SCREEN_PLAYING);
+
         fingerOnScreen = false;
         readyForInput = true;
 
         holdToResetCounter = 0;
 
-        // Initialize the required color values and the max moves, which are specific elements in the gravityGridLevel array
-        thisLevelRedNeeded= this.game.getLevelHandler().getLevel(game.currentLevel)[49];
-        thisLevelBlueNeeded= this.game.getLevelHandler().getLevel(game.currentLevel)[50];
-        thisLevelGreenNeeded= this.game.getLevelHandler().getLevel(game.currentLevel)[51];
-        thisLevelMaxMoves= this.game.getLevelHandler().getLevel(game.currentLevel)[52];
-        thisLevelCurrentRedTotal = 0;
-        thisLevelCurrentBlueTotal = 0;
-        thisLevelCurrentGreenTotal = 0;
-        thisLevelCurrentAttempts = 0;
-        thisLevelCurrentMoves = 0; // Keep track of how many moves we've taken
-        thisLevelBackgroundImageNumber = this.game.currentLevel / 25;
-
-        // Init the score flare faders things
-        blueFlareAlpha = 1.0f;
-        redFlareAlpha = 1.0f;
-        greenFlareAlpha = 1.0f;
-
-        // Init our levelComplete particle effects
+        // Init our levelComplete particle effects. This one isn't in the asset manager, so it's ours to dispose.
         levelCompleteFireworks = new ParticleEffect();
         levelCompleteFireworks.load(Gdx.files.internal("particles/levelCompleteStarburst.p"), Gdx.files.internal("particles"));
 
+        particles = new ParticleManager(ParticleManager.DeviceLod());
+
+        // Make the starbursts now rather than when a level starts. A level can start with a burst on two dozen
+        // planets, so that's how many good move bursts we keep ready.
         goodMoveStarburst= this.game.assets.getAssetManager().get("particles/goodmovestarburst.p", ParticleEffect.class); // Template effect
-        goodMoveStarburstPool = new ParticleEffectPool(goodMoveStarburst, 0, 50);                   // Pool for the template
+        goodMoveStarburstKind = particles.Register(goodMoveStarburst, 24, 50);
 
         badMoveStarburst= this.game.assets.getAssetManager().get("particles/badmovestarburst.p", ParticleEffect.class);   // Template effect
-        badMoveStarburstPool = new ParticleEffectPool(badMoveStarburst, 0, 50);                     // Pool for the template
+        badMoveStarburstKind = particles.Register(badMoveStarburst, 4, 50);
+
+        // Same detail level for the fireworks, and get their particles made before the first level is beaten
+        particles.Prepare(levelCompleteFireworks);
 
         backgroundStarfieldParticles= this.game.assets.getAssetManager().get("particles/starfield.p", ParticleEffect.class);
 
@@ -484,7 +314,8 @@ public class PlayingScreen implements Screen {
         this.whiteSpace = (int)(0.5*screenHeight) - (int)(0.5*(screenWidth/7)*7);
 
 
-        this.tile = new ArrayList<Tile>(); // Initialize our grid
+        this.tile = new ArrayList<Tile>(49); // Initialize our grid
+        this.staticLayer = new StaticLayer(screenWidth, screenHeight);
 
         // Set two counters to count our world rows and columns, which are different from the level ones.
         // These will ensure that we are building the map correctly.
@@ -492,43 +323,11 @@ public class PlayingScreen implements Screen {
         int worldCol = 0;
         int tileNum = 0;
 
-        // Load the Map
-        // Loop through the tiles and assign rect values, load values from the values table, and
-        // also load the tile type from the levels tables.
+        // Make the 49 tiles. Where they are and what they're worth never changes, only what's on them, so Reset()
+        // just fills these in for each level instead of making new ones.
         for(int r = 6; r > -1; r--) {
             for(int c = 0; c < 7; c++) {
 
-                // Create a placeholder for the tile type
-                Tile.TileType rcType;
-
-                // Determine the tile type
-                switch(this.game.getLevelHandler().getLevel(game.currentLevel)[(r*7)+c]) {
-                    case 0:
-                        rcType = Tile.TileType.NONE;
-                        break;
-                    case 1:
-                        rcType = Tile.TileType.REDPLANET;
-                        break;
-                    case 2:
-                        rcType = BLUEPLANET;
-                        break;
-                    case 3:
-                        rcType = GREENPLANET;
-                        break;
-                    case 4:
-                        rcType = Tile.TileType.ASTEROID;
-                        break;
-                    case 5:
-                        rcType = Tile.TileType.SUN;
-                        break;
-                    case 9:
-                        rcType = Tile.TileType.BLOCKED;
-                        break;
-                    default:
-                        rcType = Tile.TileType.NONE;
-                        break;
-                }
-
                 // Create a placeholder for the rect values
                 Rectangle rect = new Rectangle();
 
@@ -538,25 +337,14 @@ public class PlayingScreen implements Screen {
                 rect.width = this.tileWidth;
                 rect.height = this.tileHeight;
 
-                // Here we push the new tile to the array. Since we are assigning rect values per tile, it doesn't
-                // matter (theoretically) how we access these tiles or if they're out of order.
-                tile.add(new Tile(rect, game.tileValueTable[(r*7)+c], rcType, tileNum));
+                tile.add(new Tile(rect, game.tileValueTable[(r*7)+c], Tile.TileType.NONE, tileNum));
 
                 worldCol++;
                 tileNum++;
-
-                // (4-Nov-2016 Jesse) Add a new particle system on each and every tile so that when the level starts, there's a huge burst of stars
-                // (19-Nov-2016 Jesse) Only do this on tiles with planets, otherwise there's lots of lag
-                if(rcType == Tile.TileType.REDPLANET || rcType == BLUEPLANET || rcType == GREENPLANET) {
-                    ParticleEffectPool.PooledEffect levelStartEffect = goodMoveStarburstPool.obtain();
-                    levelStartEffect.setPosition(rect.x + (rect.width / 2), rect.y + (rect.height / 2));
-                    particleEffects.add(levelStartEffect);
-                }
             }
             worldCol = 0; // Reset column counter
             worldRow++; // Iterate our row counter
         }
-
         // Load the sounds before the textures so the assetmanager isn't busy by the time we're clicking things
         //restartLevelSound= this.game.assets.getAssetManager().get("startup.ogg"));
         tileSelectSound= this.game.assets.getAssetManager().get("sounds/tileSelectSound.ogg", Sound.class);
@@ -574,187 +362,133 @@ public class PlayingScreen implements Screen {
         backgroundMusic.setLooping(true);
         backgroundMusic.setVolume(0.4f);
 
-       /* 0 = blank
-        1 = red
-        2 = blue
-        3 = green
-        4 = asteroid
-        5 = sun
-        9 = blocked*/
-
         // Load the textures
-        tileBlankRegion = this.game.assets.getAtlas().findRegion("tileBlankImage");
-        tileRedPlanetRegion = this.game.assets.getAtlas().findRegion("planetRed");
-        tileBluePlanetRegion = this.game.assets.getAtlas().findRegion("planetBlue");
-        tileGreenPlanetRegion = this.game.assets.getAtlas().findRegion("planetGreen");
-        tileSunRegion = this.game.assets.getAtlas().findRegion("sun");
-        tileSunFlareRegion = this.game.assets.getAtlas().findRegion("sunflare0");
+        tileBlankRegion = this.game.assets.findRegion("tileBlankImage");
+        tileRedPlanetRegion = this.game.assets.findRegion("planetRed");
+        tileBluePlanetRegion = this.game.assets.findRegion("planetBlue");
+        tileGreenPlanetRegion = this.game.assets.findRegion("planetGreen");
+        tileSunRegion = this.game.assets.findRegion("sun");
+        tileSunFlareRegion = this.game.assets.findRegion("sunflare0");
         tileAsteroidRegion = new TextureRegion[4];
-        tileAsteroidRegion[0] = this.game.assets.getAtlas().findRegion("asteroid0");
-        tileAsteroidRegion[1] = this.game.assets.getAtlas().findRegion("asteroid1");
-        tileAsteroidRegion[2] = this.game.assets.getAtlas().findRegion("asteroid2");
-        tileAsteroidRegion[3] = this.game.assets.getAtlas().findRegion("asteroid3");
-        backgroundRegion = new TextureRegion[4];
-        backgroundRegion[0] = this.game.assets.getAtlas().findRegion("bg0");
-        backgroundRegion[1] = this.game.assets.getAtlas().findRegion("bg1");
-        backgroundRegion[2] = this.game.assets.getAtlas().findRegion("bg2");
-        backgroundRegion[3] = this.game.assets.getAtlas().findRegion("bg3");
-        tutorialOverlayRegion = new TextureRegion[51];
-        tutorialOverlayRegion[0] = this.game.assets.getAtlas().findRegion("tutorials/level1TutorialOverlay");
-        tutorialOverlayRegion[1] = this.game.assets.getAtlas().findRegion("tutorials/level2TutorialOverlay");
-        tutorialOverlayRegion[6] = this.game.assets.getAtlas().findRegion("tutorials/level7TutorialOverlay");
-        tutorialOverlayRegion[50] = this.game.assets.getAtlas().findRegion("tutorials/level51TutorialOverlay");
+        tileAsteroidRegion[0] = this.game.assets.findRegion("asteroid0");
+        tileAsteroidRegion[1] = this.game.assets.findRegion("asteroid1");
+        tileAsteroidRegion[2] = this.game.assets.findRegion("asteroid2");
+        tileAsteroidRegion[3] = this.game.assets.findRegion("asteroid3");
 
         //levelMessageBackgroundImage= this.this.game.assets.getAssetManager().get("levelMessageBackground.png", Texture.class);
-        doneCheckmarkRegion = this.game.assets.getAtlas().findRegion("levelicons/done");
-        doneFlareBackgroundRegion = this.game.assets.getAtlas().findRegion("flare");
+        doneCheckmarkRegion = this.game.assets.findRegion("levelicons/done");
+        doneFlareBackgroundRegion = this.game.assets.findRegion("flare");
         doneFlareBackgroundDirection = 0.0f;
 
         tileValueRegion = new TextureRegion[11];
-        tileValueRegion[0] = this.game.assets.getAtlas().findRegion("tile0");
-        tileValueRegion[1] = this.game.assets.getAtlas().findRegion("tile1");
-        tileValueRegion[2] = this.game.assets.getAtlas().findRegion("tile2");
-        tileValueRegion[3] = this.game.assets.getAtlas().findRegion("tile3");
-        tileValueRegion[4] = this.game.assets.getAtlas().findRegion("tile4");
-        tileValueRegion[5] = this.game.assets.getAtlas().findRegion("tile5");
-        tileValueRegion[6] = this.game.assets.getAtlas().findRegion("tile6");
+        tileValueRegion[0] = this.game.assets.findRegion("tile0");
+        tileValueRegion[1] = this.game.assets.findRegion("tile1");
+        tileValueRegion[2] = this.game.assets.findRegion("tile2");
+        tileValueRegion[3] = this.game.assets.findRegion("tile3");
+        tileValueRegion[4] = this.game.assets.findRegion("tile4");
+        tileValueRegion[5] = this.game.assets.findRegion("tile5");
+        tileValueRegion[6] = this.game.assets.findRegion("tile6");
         tileValueRegion[7] = null; // We don't actually use this value
-        tileValueRegion[8] = this.game.assets.getAtlas().findRegion("tile8");
+        tileValueRegion[8] = this.game.assets.findRegion("tile8");
         tileValueRegion[9] = null; // We don't actually use this value
-        tileValueRegion[10] = this.game.assets.getAtlas().findRegion("tile10");
+        tileValueRegion[10] = this.game.assets.findRegion("tile10");
 
-        levelCompleteRegion = this.game.assets.getAtlas().findRegion("buttonLevelComplete");
-        levelCompleteTrophyRegion = this.game.assets.getAtlas().findRegion("levelCompleteTrophy");
+        levelCompleteRegion = this.game.assets.findRegion("buttonLevelComplete");
+        levelCompleteTrophyRegion = this.game.assets.findRegion("levelCompleteTrophy");
         levelCompleteBackgroundZoom = 100.0f;
         levelCompleteTrophyZoom = 100.0f;
         levelCompleteMultiplier = 1;
 
-        tileSelectedTopRegion = this.game.assets.getAtlas().findRegion("tileSelected");
-        tileSelectedBottomRegion = this.game.assets.getAtlas().findRegion("tileSelected2");
+        tileSelectedTopRegion = this.game.assets.findRegion("tileSelected");
+        tileSelectedBottomRegion = this.game.assets.findRegion("tileSelected2");
 
         tryingToReset = false;
         inGameMenuButtonRect = new Rectangle((screenWidth/7)*6.0f, screenHeight-(screenWidth/7.0f), screenWidth/7.0f, screenWidth/7.0f); // Draw one tile big in upper-right corner
 
         inGameMenuActive = false;
-        inGameMenuBackgroundRegion = this.game.assets.getAtlas().findRegion("menu/blackBackground");
-        inGameMenuCancelButtonRegion = this.game.assets.getAtlas().findRegion("menu/cancelButton");
-        inGameMenuResetButtonRegion = this.game.assets.getAtlas().findRegion("menu/resetButton");
-        inGameMenuLevelSelectButtonRegion = this.game.assets.getAtlas().findRegion("menu/levelSelectButton");
+        inGameMenuBackgroundRegion = this.game.assets.findRegion("menu/blackBackground");
+        inGameMenuCancelButtonRegion = this.game.assets.findRegion("menu/cancelButton");
+        inGameMenuResetButtonRegion = this.game.assets.findRegion("menu/resetButton");
+        inGameMenuLevelSelectButtonRegion = this.game.assets.findRegion("menu/levelSelectButton");
 
-        inGameMenuButtonRegion = this.game.assets.getAtlas().findRegion("menu/menuButton");
-        inGameMenuSoundOnButtonRegion = this.game.assets.getAtlas().findRegion("menu/soundOnButton");
-        inGameMenuSoundOffButtonRegion = this.game.assets.getAtlas().findRegion("menu/soundOffButton");
+        inGameMenuButtonRegion = this.game.assets.findRegion("menu/menuButton");
+        inGameMenuSoundOnButtonRegion = this.game.assets.findRegion("menu/soundOnButton");
+        inGameMenuSoundOffButtonRegion = this.game.assets.findRegion("menu/soundOffButton");
 
         float buttonWidth = this.screenWidth/3.0f;
 
         inGameMenuResetButtonRect = new Rectangle(0.66f*this.screenWidth-buttonWidth-(this.screenWidth/6.0f), this.screenHeight/2.0f, this.screenWidth/3.0f, this.screenWidth/3.0f);
         inGameMenuLevelSelectButtonRect = new Rectangle(0.33f*this.screenWidth+(this.screenWidth/6.0f), this.screenHeight/2.0f, this.screenWidth/3.0f, this.screenWidth/3.0f);
         inGameMenuToggleSoundRect = new Rectangle((this.screenWidth/2)-(0.5f*buttonWidth), this.screenHeight/4.0f, this.screenWidth/3.0f, this.screenWidth/3.0f);
+    }
 
-        // Call this once before the level starts so that we have some initial values
-
-        updateCurrentLevelValueTotals();
-
-        if(game.getOptions().playSounds()) { restartLevelSound.play(); }
-
+    // Start level `levelNum` fresh, as if we'd never played it this session. This is what making a new PlayingScreen
+    // used to do.
+    public void LoadLevel(int levelNum) {
+        game.currentLevel = levelNum;
+        thisLevelCurrentAttempts = 0;
+        Reset();
     }
 
+    // The player gave up on this level (reset button or out of moves), so it counts as another attempt
     public void RestartLevel() {
+        thisLevelCurrentAttempts += 1; // It's set to zero when we beat the level and RestartLevel is called afterward
+        Reset();
+    }
 
-        // Reset all the particleEffects in our array that manages them all
-        for (int i = particleEffects.size - 1; i >= 0; i--)
-            particleEffects.get(i).free(); //free all the effects back to the pool
-        particleEffects.clear(); //clear the current effects array
+    // Puts game.currentLevel on the board from the beginning. Everything gets reused: the tiles are filled in where
+    // they are, and running effects go back to their pools.
+    private void Reset() {
 
-        // Set our defaults for our levelCompletionInfo
-        thisLevelCurrentAttempts += 1; // It's set to zero when we beat the level and RestartLevel is called afterward
-        thisLevelCurrentMoves = 0;
+        // Put all the running starbursts back in their pools
+        particles.Clear();
 
-        // This also works as a level changer because we can increment the game.currentLevel (via UpdateLevelCompletionInfo) and then call RestartLevel() which reloads everything,
-        // essentially loading up a new level. 
+        // Drop whatever is left of the last level's fireworks. They only get drawn after start(), so it doesn't matter
+        // that reset() starts them too.
+        levelCompleteFireworks.reset();
 
-        // Let's reset the value totals needed just in case this is a new level. If we don't do this, the old values from the previous level seep through.
-        thisLevelRedNeeded= this.game.getLevelHandler().getLevel(game.currentLevel)[49];
-        thisLevelBlueNeeded= this.game.getLevelHandler().getLevel(game.currentLevel)[50];
-        thisLevelGreenNeeded= this.game.getLevelHandler().getLevel(game.currentLevel)[51];
-        thisLevelMaxMoves= this.game.getLevelHandler().getLevel(game.currentLevel)[52];
+        int[] level = this.game.getLevelHandler().getLevel(game.currentLevel);
 
-        // Reset the tiles
-        int worldRow = 0;
-        int worldCol = 0;
-        int tileNum = 0;
+        thisLevelRedNeeded= level[49];
+        thisLevelBlueNeeded= level[50];
+        thisLevelGreenNeeded= level[51];
+        thisLevelMaxMoves= level[52];
+        thisLevelCurrentMoves = 0; // Keep track of how many moves we've taken
+        thisLevelBackgroundImageNumber = this.game.currentLevel / 25;
+        LoadLevelAtlases();
+        staticLayer.Invalidate(); // New background and new empty tiles
+
+        // Init the score flare faders things
+        blueFlareAlpha = 1.0f;
+        redFlareAlpha = 1.0f;
+        greenFlareAlpha = 1.0f;
 
         // Load the Map
-        // Loop through the tiles and assign rect values, load values from the values table, and
-        // also load the tile type from the levels tables. 
+        // Same walk as the constructor, so tileNum lines up with the tiles it made
+        int tileNum = 0;
         for(int r = 6; r > -1; r--) {
             for(int c = 0; c < 7; c++) {
 
-                // Create a placeholder for the tile type
-                Tile.TileType rcType;
-
-                // Determine the tile type
-                switch(this.game.getLevelHandler().getLevel(game.currentLevel)[(r*7)+c]) {
-                    case 0:
-                        rcType = Tile.TileType.NONE;
-                        break;
-                    case 1:
-                        rcType = Tile.TileType.REDPLANET;
-                        break;
-                    case 2:
-                        rcType = Tile.TileType.BLUEPLANET;
-                        break;
-                    case 3:
-                        rcType = Tile.TileType.GREENPLANET;
-                        break;
-                    case 4:
-                        rcType = Tile.TileType.ASTEROID;
-                        break;
-                    case 5:
-                        rcType = Tile.TileType.SUN;
-                        break;
-                    case 9:
-                        rcType = Tile.TileType.BLOCKED;
-                        break;
-                    default:
-                        rcType = Tile.TileType.NONE;
-                        break;
-                }
-
-                // Create a placeholder for the rect values
-                Rectangle rect = new Rectangle();
-
-                // Determine the rect values
-                rect.x = leftSpace + worldCol*this.tileWidth;
-                rect.y = whiteSpace - headSpace + worldRow * this.tileHeight;
-                rect.width = this.tileWidth;
-                rect.height = this.tileHeight;
-
-                // Here we push the new tile to the array. Since we are assigning rect values per tile, it doesn't
-                // matter (theoretically) how we access these tiles or if they're out of order. 
-                Tile temp = new Tile(rect, game.tileValueTable[(r*7)+c], rcType, tileNum);
-                tile.set(tileNum, temp);
+                Tile.TileType rcType = TileTypeFor(level[(r*7)+c]);
+                Tile t = tile.get(tileNum);
+                t.Reset(rcType);
 
-                worldCol++;
                 tileNum++;
 
                 // (4-Nov-2016 Jesse) Add a new particle system on each and every tile so that when the level starts, there's a huge burst of stars
                 // (19-Nov-2016 Jesse) Only do this on tiles with planets, otherwise there's lots of lag
-                if(rcType == Tile.TileType.REDPLANET || rcType == Tile.TileType.BLUEPLANET || rcType == Tile.TileType.GREENPLANET) {
-                    ParticleEffectPool.PooledEffect levelStartEffect = goodMoveStarburstPool.obtain();
-                    levelStartEffect.setPosition(rect.x + (rect.width / 2), rect.y + (rect.height / 2));
-                    particleEffects.add(levelStartEffect);
+                if(rcType == Tile.TileType.REDPLANET || rcType == BLUEPLANET || rcType == GREENPLANET) {
+                    particles.Spawn(goodMoveStarburstKind, t.rect.x + (t.rect.width / 2), t.rect.y + (t.rect.height / 2));
                 }
-
             }
-            worldCol = 0; // Reset column counter
-            worldRow++; // Iterate our row counter
         }
 
-        // Reset the variables 
-        thisLevelCurrentMoves = 0;
+        // Reset the variables
         updateCurrentLevelValueTotals();
+        fingerOnScreen = false;
         readyForInput = true;
+        holdToResetCounter = 0;
+        inGameMenuActive = false;
         theGameState = gameState.READY;
         tryingToReset = false;
         levelCompleteTrophyZoom = 100.0f;
@@ -764,6 +498,106 @@ public class PlayingScreen implements Screen {
         if(game.getOptions().playSounds()) { restartLevelSound.play(); }
     }
 
+    // Which background a level gets. Add check to future-proof background. We should probably add more, but this will
+    // ensure the game doesn't crash if the player makes it past our last background number
+    static int BackgroundNumber(int level) {
+        int galaxy = level / 25;
+        return galaxy > 3 ? 0 : galaxy;
+    }
+
+    static String GalaxyAtlas(int backgroundNumber) {
+        return GALAXY_ATLAS + backgroundNumber;
+    }
+
+    // The atlas with `level`'s tutorial overlay, or null if it doesn't have one
+    String TutorialAtlas(int level) {
+        if(level < game.levelsWithTutorialOverlays.length && game.levelsWithTutorialOverlays[level] == 1) {
+            return TUTORIAL_ATLAS + (level + 1);
+        }
+        return null;
+    }
+
+    // Asks for the background of this level's galaxy and, if the level has one, its tutorial overlay, along with the
+    // next level's so they're already there when we get to it. None of it is waited on: the AssetManager loads them
+    // while we play and UpdateLevelAtlases() picks them up. Until the new background is in we keep drawing the old
+    // one, and a tutorial shows up as soon as it's loaded. Everything else we draw is in the atlases AssetLoader keeps
+    // loaded for the playing screen.
+    private void LoadLevelAtlases() {
+        levelAtlases.clear();
+        for(int level = game.currentLevel; level <= game.currentLevel + 1; level++) {
+            String galaxy = GalaxyAtlas(BackgroundNumber(level));
+            if(!levelAtlases.contains(galaxy)) {
+                levelAtlases.add(galaxy);
+            }
+            // Tutorials are full screen images, a page each, so we only keep them around on the levels that use them
+            String tutorial = TutorialAtlas(level);
+            if(tutorial != null) {
+                levelAtlases.add(tutorial);
+            }
+        }
+
+        for(String atlas : levelAtlases) {
+            if(!heldAtlases.contains(atlas)) {
+                game.assets.RequireLater(atlas);
+                heldAtlases.add(atlas);
+            }
+        }
+        for(int a = heldAtlases.size() - 1; a >= 0; a--) {
+            String atlas = heldAtlases.get(a);
+            if(!levelAtlases.contains(atlas) && !(backgroundAtlasNumber != -1 && atlas.equals(GalaxyAtlas(backgroundAtlasNumber)))) {
+                game.assets.Release(atlas);
+                heldAtlases.remove(a);
+            }
+        }
+
+        int backgroundNumber = BackgroundNumber(game.currentLevel);
+        pendingBackgroundNumber = backgroundNumber != backgroundAtlasNumber ? backgroundNumber : -1;
+        tutorialOverlayRegion = null;
+        tutorialPending = TutorialAtlas(game.currentLevel) != null;
+        UpdateLevelAtlases();
+    }
+
+    // Takes up the background and tutorial overlay LoadLevelAtlases() asked for, once they've loaded. Called every frame.
+    private void UpdateLevelAtlases() {
+        if(pendingBackgroundNumber != -1 && game.assets.IsLoaded(GalaxyAtlas(pendingBackgroundNumber))) {
+            // The new one is in, so the old one can go
+            int oldBackgroundNumber = backgroundAtlasNumber;
+            backgroundAtlasNumber = pendingBackgroundNumber;
+            pendingBackgroundNumber = -1;
+            backgroundRegion = game.assets.findRegion("bg" + backgroundAtlasNumber);
+
+            String oldAtlas = GalaxyAtlas(oldBackgroundNumber);
+            if(oldBackgroundNumber != -1 && !levelAtlases.contains(oldAtlas) && heldAtlases.remove(oldAtlas)) {
+                game.assets.Release(oldAtlas);
+            }
+            staticLayer.Invalidate();
+        }
+
+        if(tutorialPending && game.assets.IsLoaded(TutorialAtlas(game.currentLevel))) {
+            tutorialPending = false;
+            tutorialOverlayRegion = game.assets.findRegion("tutorials/level" + (game.currentLevel + 1) + "TutorialOverlay");
+        }
+    }
+
+    /* 0 = blank
+       1 = red
+       2 = blue
+       3 = green
+       4 = asteroid
+       5 = sun
+       9 = blocked */
+    private static Tile.TileType TileTypeFor(int levelValue) {
+        switch(levelValue) {
+            case 1: return Tile.TileType.REDPLANET;
+            case 2: return BLUEPLANET;
+            case 3: return GREENPLANET;
+            case 4: return Tile.TileType.ASTEROID;
+            case 5: return Tile.TileType.SUN;
+            case 9: return Tile.TileType.BLOCKED;
+            default: return Tile.TileType.NONE;
+        }
+    }
+
     public void OutOfMoves() {
 
     }
@@ -779,7 +613,7 @@ public class PlayingScreen implements Screen {
         // Check for input
             if (Gdx.input.justTouched()) {
 
-                Vector3 finger = new Vector3();
+                Vector3 finger = touchPoint;
                 camera.unproject(finger.set(Gdx.input.getX(), Gdx.input.getY(), 0));
 
                 if (theGameState == gameState.IN_GAME_MENU) {
@@ -813,7 +647,7 @@ public class PlayingScreen implements Screen {
 
         if (Gdx.input.isTouched()) {
 
-            Vector3 finger = new Vector3();
+            Vector3 finger = touchPoint;
             camera.unproject(finger.set(Gdx.input.getX(), Gdx.input.getY(), 0));
 
                 if (readyForInput) {
@@ -985,6 +819,9 @@ public class PlayingScreen implements Screen {
                                     from.status = Tile.TileStatus.NONE;
                                     from.type = Tile.TileType.NONE;
 
+                                    // One tile just emptied and another filled up
+                                    staticLayer.Invalidate();
+
                                     // If we still have moves left, set the gamestate to ready
                                     // Otherwise, set the gamestate to OUT_OF_MOVES
                                     thisLevelCurrentMoves++;
@@ -999,10 +836,7 @@ public class PlayingScreen implements Screen {
 
                                     // Create a new particle system at this tile. The system is generated independently of the tile itself; we only need to create it here to
                                     // know the to.rect values (i.e., where the system will originate)
-                                    ParticleEffectPool.PooledEffect effect = goodMoveStarburstPool.obtain();
-                                    effect.setPosition(to.rect.x+(0.5f*to.rect.width), to.rect.y+(0.5f*to.rect.height));
-                                    // Add our new particle system to the particleeffects array
-                                    particleEffects.add(effect);
+                                    particles.Spawn(goodMoveStarburstKind, to.rect.x+(0.5f*to.rect.width), to.rect.y+(0.5f*to.rect.height));
 
                                     // Add a burst if we completed one planet color gravity goal
                                     // Removing this because I don't like having a burst on scores we didn't complete, and I
@@ -1034,6 +868,12 @@ public class PlayingScreen implements Screen {
                                         theGameState = gameState.LEVEL_COMPLETE;
                                         if(game.getOptions().playSounds()) { levelCompleteSound.play(); }
 
+                                        // Get the next level ready while the player enjoys the fireworks, so there's
+                                        // no wait when they tap through to it
+                                        if(game.currentLevel+1 < game.getLevelHandler().getLevelCompletionInfo().size()) {
+                                            game.getLevelHandler().PrefetchLevel(game.currentLevel+1);
+                                        }
+
                                         // Add a group of particle effects on complete level
                                         levelCompleteFireworks.setPosition(0.5f*game.screenWidth, 0.5f*game.screenHeight);
                                         levelCompleteFireworks.start();
@@ -1064,10 +904,7 @@ public class PlayingScreen implements Screen {
 
                                     if(game.getOptions().playSounds()) { cannotMoveSound.play(); }
                                     // Create a new particle system at this tile
-                                    ParticleEffectPool.PooledEffect effect = badMoveStarburstPool.obtain();
-                                    effect.setPosition(to.rect.x+(0.5f*to.rect.width), to.rect.y+(0.5f*to.rect.height));
-                                    // Add our new particle system to the particleeffects array
-                                    particleEffects.add(effect);
+                                    particles.Spawn(badMoveStarburstKind, to.rect.x+(0.5f*to.rect.width), to.rect.y+(0.5f*to.rect.height));
 
                                     break moveSelectedTile;
                                 }
@@ -1081,16 +918,18 @@ public class PlayingScreen implements Screen {
             }
         }
 
-        // Draw the background based on the "galaxy," which is just the level#/10. Every ten levels is a new background (i.e., a new galaxy)
-        game.batch.setColor(1.0f,1.0f,1.0f,1.0f);
-
-        // Add check to future-proof background. We should probably add more, but this will ensure the game doesn't crash
-        // if the player makes it past our last background number
-        if(thisLevelBackgroundImageNumber > 3) {
-            game.batch.draw(backgroundRegion[0], 0,0,screenWidth, screenHeight);
-        } else {
-            game.batch.draw(backgroundRegion[thisLevelBackgroundImageNumber], 0, 0, screenWidth, screenHeight);
+        // Draw the background and the empty tiles. They're one picture that only gets redrawn when the board changes;
+        // if it did this frame (we just moved a planet, say, or the background finished loading), stop the batch long
+        // enough to redraw it.
+        UpdateLevelAtlases();
+        if(staticLayer.IsDirty()) {
+            game.batch.end();
+            PaintStaticLayer();
+            game.batch.setProjectionMatrix(camera.combined);
+            game.batch.begin();
         }
+        staticLayer.Draw(game.batch, 0, 0, screenWidth, screenHeight);
+        game.batch.setColor(1.0f,1.0f,1.0f,1.0f);
 
 
         // The starfield kept rendering at approximately half width and half height. I edited the particle p file to have
@@ -1103,11 +942,12 @@ public class PlayingScreen implements Screen {
 
         int cellNumber = 0;
 
-        // Loop through tiles and draw them
+        // Loop through tiles and draw them. Everything goes through drawQueue, which draws it all at the end sorted by
+        // layer and atlas page, so the batch isn't flushing for every texture switch from one tile to the next.
         for (Tile tile : this.tile) {
 
             // Always draw the tile border
-            game.batch.setColor(1f,1f,1f,1f);
+            drawQueue.SetColor(1f,1f,1f,1f);
 
             // Draw the value (which are just numbers) image, then the border image (tileBlankRegion)
 
@@ -1121,39 +961,33 @@ public class PlayingScreen implements Screen {
             // First draw the type of tile it is and the value of the tile if it's a planet
             switch(tile.type) {
                 case NONE:
-                    // Flip these if you want the text brighter. right now it's behind the transparent tileir
-                    //game.batch.setColor(0.5f,0.5f,0.5f,0.5f);
-                    game.batch.setColor(0.5f,0.5f,0.5f,tile.value/10.0f);
-                    game.batch.draw(tileBlankRegion, tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
-                    game.batch.setColor(1f,1f,1f,.8f);
-                    game.batch.draw(tileValueRegion[tile.value], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
-                    game.batch.setColor(1f,1f,1f,1f);
+                    // Already drawn, it's part of the static layer
                     break;
                 case REDPLANET:
-                    game.batch.draw(tileRedPlanetRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, sizeMultiplier, sizeMultiplier, 0.0f);
-                    game.batch.setColor(1f,1f,1f,1f);
-                    game.batch.draw(tileValueRegion[tile.value], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
+                    drawQueue.Draw(LAYER_PLANETS, tileRedPlanetRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, sizeMultiplier, sizeMultiplier, 0.0f);
+                    drawQueue.SetColor(1f,1f,1f,1f);
+                    drawQueue.Draw(LAYER_NUMERALS, tileValueRegion[tile.value], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
                     break;
                 case BLUEPLANET:
-                    game.batch.draw(tileBluePlanetRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, sizeMultiplier, sizeMultiplier, 0.0f);
-                    game.batch.setColor(1f,1f,1f,1f);
-                    game.batch.draw(tileValueRegion[tile.value], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
+                    drawQueue.Draw(LAYER_PLANETS, tileBluePlanetRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, sizeMultiplier, sizeMultiplier, 0.0f);
+                    drawQueue.SetColor(1f,1f,1f,1f);
+                    drawQueue.Draw(LAYER_NUMERALS, tileValueRegion[tile.value], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
                     break;
                 case GREENPLANET:
-                    game.batch.draw(tileGreenPlanetRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, sizeMultiplier, sizeMultiplier, 0.0f);
-                    game.batch.setColor(1f,1f,1f,1f);
-                    game.batch.draw(tileValueRegion[tile.value], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
+                    drawQueue.Draw(LAYER_PLANETS, tileGreenPlanetRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, sizeMultiplier, sizeMultiplier, 0.0f);
+                    drawQueue.SetColor(1f,1f,1f,1f);
+                    drawQueue.Draw(LAYER_NUMERALS, tileValueRegion[tile.value], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
                     break;
                 case ASTEROID:
-                    game.batch.setColor(1f,1f,1f,1f);
-                    game.batch.draw(tileAsteroidRegion[tile.rand], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
+                    drawQueue.SetColor(1f,1f,1f,1f);
+                    drawQueue.Draw(LAYER_PLANETS, tileAsteroidRegion[tile.rand], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
                     break;
                 case SUN:
-                    game.batch.setColor(1f,1f,1f,1f);
+                    drawQueue.SetColor(1f,1f,1f,1f);
                     //game.batch.draw(tileSunImage, tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
-                    game.batch.draw(tileSunRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 3.0f, 3.0f, tile.rand*71f);
-                    game.batch.setColor(1f,1f,1f,0.5f);
-                    game.batch.draw(tileSunFlareRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 8.0f, 8.0f, tile.rand*71f);
+                    drawQueue.Draw(LAYER_SUNS, tileSunRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 3.0f, 3.0f, tile.rand*71f);
+                    drawQueue.SetColor(1f,1f,1f,0.5f);
+                    drawQueue.Draw(LAYER_SUN_FLARES, tileSunFlareRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 8.0f, 8.0f, tile.rand*71f);
                     break;
                 default:
                     break;
@@ -1171,9 +1005,9 @@ public class PlayingScreen implements Screen {
                     }
 
                     // Draw the bottom one
-                    game.batch.setColor(1.0f,1.0f,1.0f,0.5f);
-                    game.batch.draw(tileSelectedBottomRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 1.0f, 1.0f, tileSelectedBottomDirection);
-                    game.batch.draw(tileSelectedTopRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 1.0f, 1.0f, tileSelectedTopDirection);
+                    drawQueue.SetColor(1.0f,1.0f,1.0f,0.5f);
+                    drawQueue.Draw(LAYER_SELECTED_BOTTOM, tileSelectedBottomRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 1.0f, 1.0f, tileSelectedBottomDirection);
+                    drawQueue.Draw(LAYER_SELECTED_TOP, tileSelectedTopRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 1.0f, 1.0f, tileSelectedTopDirection);
 
                     // Rotate that bad boy
                     tileSelectedBottomDirection -= 3.0f;
@@ -1188,8 +1022,8 @@ public class PlayingScreen implements Screen {
                     // Even though we use a particle system to display some bursting stars, I also want to display the sunflare
                     // If we still have a frame in our animation
                     if(tile.overlayFrameNumber < 12) {
-                        game.batch.setColor(1.0f,1.0f,1.0f,1f-(tile.overlayFrameNumber/12.0f));
-                        game.batch.draw(tileSunFlareRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 1.5f*(.5f*tile.overlayFrameNumber), 1.5f*(.5f*tile.overlayFrameNumber), tile.overlayFrameNumber*13.0f);
+                        drawQueue.SetColor(1.0f,1.0f,1.0f,1f-(tile.overlayFrameNumber/12.0f));
+                        drawQueue.Draw(LAYER_MOVE_FLARES, tileSunFlareRegion, tile.rect.x, tile.rect.y, tile.rect.width/2, tile.rect.height/2, tile.rect.width, tile.rect.height, 1.5f*(.5f*tile.overlayFrameNumber), 1.5f*(.5f*tile.overlayFrameNumber), tile.overlayFrameNumber*13.0f);
                         // Add deltatime to our time since last frame
                         if (TimeUtils.nanoTime() - tile.timeSinceLastFrame > 25000000) {
                             tile.overlayFrameNumber++;
@@ -1216,6 +1050,8 @@ public class PlayingScreen implements Screen {
             cellNumber++;
         }
 
+        drawQueue.Flush(game.batch);
+
         // Trick to get accurate lines:
         // Set the Y value of the rendered fonts to (lineNumberFromTop*(screenHeight-this.game.fontSize))
 
@@ -1439,10 +1275,10 @@ public class PlayingScreen implements Screen {
         }
 
         // Let's check to see if this level has a tutorial overlay assigned to it. If it does, then let's display it!
-        if(game.levelsWithTutorialOverlays[game.currentLevel] == 1) {
+        if(tutorialOverlayRegion != null) {
             // We do have a tutorial overlay, so let's display it
             game.batch.setColor(1.0f,1.0f,1.0f,1.0f);
-            game.batch.draw(tutorialOverlayRegion[game.currentLevel], 0, 0, game.screenWidth, game.screenHeight);
+            game.batch.draw(tutorialOverlayRegion, 0, 0, game.screenWidth, game.screenHeight);
         }
 
 
@@ -1496,7 +1332,7 @@ public class PlayingScreen implements Screen {
                 // game.UpdateLevelCompletionInfo is called first!
 
                 // Add check here to go back to levelSelect screen if our currentlevel is = the length of levelCompletionInfo
-                if(this.game.currentLevel == game.getLevelHandler().getLevelCompletionInfo().levelData.size()-1) {
+                if(this.game.currentLevel == game.getLevelHandler().getLevelCompletionInfo().size()-1) {
                     // If there are 100 levels:
                     //  If we beat level 100, just go back to the levelSelectScreen
                     game.setScreen(parentScreen);
@@ -1531,15 +1367,8 @@ public class PlayingScreen implements Screen {
             game.batch.draw(inGameMenuCancelButtonRegion, inGameMenuButtonRect.x, inGameMenuButtonRect.y, inGameMenuButtonRect.width, inGameMenuButtonRect.height);
         }
 
-        // Draw all particle effects from our array that holds all currently running particle effect systems
-        for (int i = particleEffects.size - 1; i >= 0; i--) {
-            ParticleEffectPool.PooledEffect effect = particleEffects.get(i);
-            effect.draw(game.batch, delta*1.5f);
-            if (effect.isComplete()) {
-                effect.free();
-                particleEffects.removeIndex(i);
-            }
-        }
+        // Draw all the running particle effects (and start any that are waiting their turn)
+        particles.Draw(game.batch, delta*1.5f);
 
         game.batch.end();
 
@@ -1603,12 +1432,40 @@ public class PlayingScreen implements Screen {
         }
     }
 
+    // Draws everything in the static layer: the background for this galaxy, then each empty tile and its number.
+    // Only call this while the batch isn't drawing.
+    private void PaintStaticLayer() {
+        staticLayer.Begin(game.batch, camera.combined);
+
+        // Draw the background based on the "galaxy," which is just the level#/25. Every 25 levels is a new background (i.e., a new galaxy)
+        // (Nothing until the first one has loaded; see LoadLevelAtlases())
+        if(backgroundRegion != null) {
+            game.batch.draw(backgroundRegion, 0, 0, screenWidth, screenHeight);
+        }
+
+        for (Tile tile : this.tile) {
+            if(tile.type == Tile.TileType.NONE) {
+                // Flip these if you want the text brighter. right now it's behind the transparent tileir
+                //game.batch.setColor(0.5f,0.5f,0.5f,0.5f);
+                game.batch.setColor(0.5f,0.5f,0.5f,tile.value/10.0f);
+                game.batch.draw(tileBlankRegion, tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
+                game.batch.setColor(1f,1f,1f,.8f);
+                game.batch.draw(tileValueRegion[tile.value], tile.rect.x, tile.rect.y, tile.rect.width, tile.rect.height);
+            }
+        }
+        game.batch.setColor(1f,1f,1f,1f);
+
+        staticLayer.End(game.batch);
+    }
+
     @Override
     public void resize(int width, int height) {
+        staticLayer.Resize(width, height);
     }
 
     @Override
     public void show() {
+        game.assets.Enter(AssetLoader.SCREEN_PLAYING);
         // start the playback of the background music
         // when the screen is shown
         //if(game.getOptions().playSounds()) { scannerHum.play(); }
@@ -1617,6 +1474,8 @@ public class PlayingScreen implements Screen {
     @Override
     public void hide() {
         // TODO: Switch the gamestate to IN_GAME_MENU
+        Gdx.app.debug("PlayingScreen", "Board: " + drawQueue);
+        Gdx.app.debug("PlayingScreen", "Particles: " + particles);
     }
 
     @Override
@@ -1626,13 +1485,35 @@ public class PlayingScreen implements Screen {
 
     @Override
     public void resume() {
-
+        // Android can throw away our GL context while we're paused, and what was in the FrameBuffer with it
+        staticLayer.Invalidate();
     }
 
     @Override
     public void dispose() {
 
+        // Hand any running effects back, then let the pools go. The pooled effects share their textures with the
+        // templates, which belong to the asset manager, so there's nothing else to free for them.
+        particles.Dispose();
+
+        staticLayer.Dispose();
 
+        for(String atlas : heldAtlases) {
+            game.assets.Release(atlas);
+        }
+        heldAtlases.clear();
+        levelAtlases.clear();
+        backgroundAtlasNumber = -1;
+        pendingBackgroundNumber = -1;
+        backgroundRegion = null;
+        tutorialOverlayRegion = null;
+        tutorialPending = false;
+
+        // We loaded the fireworks ourselves, textures and all
+        if(levelCompleteFireworks != null) {
+            levelCompleteFireworks.dispose();
+            levelCompleteFireworks = null;
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Running totals over LevelCompletionInfo, one set per galaxy:
+ *
+ *   completed      levels in the galaxy with status 2
+ *   underPar       of those, the ones beaten in par moves or less
+ *   firstPlayable  the lowest level in the galaxy with status 1, or -1
+ *
+ * plus the lowest playable level overall. LevelCompletionInfo tells us about every change to a level (Forget() with
+ * its old values, then Count() with the new ones), so these are always up to date and every question is O(1) instead
+ * of a walk over every level the player has ever seen. They're saved with the snapshot, so startup doesn't have to
+ * rebuild them either.
+ */
+
+final class ProgressIndex {
+
+    static final int LEVELS_PER_GALAXY = GalaxyGenerator.LEVELS_PER_GALAXY;
+
+    private int[] completed = new int[4];
+    private int[] underPar = new int[4];
+    private int[] firstPlayable = new int[4];
+    private int galaxies;
+
+    // Lowest playable level anywhere, or -1
+    private int firstPlayableLevel = -1;
+
+    ProgressIndex() {
+        Arrays.fill(firstPlayable, -1);
+    }
+
+    int getGalaxyCount() { return this.galaxies; }
+
+    int getCompleted(int galaxy) { return galaxy < galaxies ? completed[galaxy] : 0; }
+    int getUnderPar(int galaxy) { return galaxy < galaxies ? underPar[galaxy] : 0; }
+    int getFirstPlayable(int galaxy) { return galaxy < galaxies ? firstPlayable[galaxy] : -1; }
+    int getFirstPlayableLevel() { return this.firstPlayableLevel; }
+
+    // Every level in the galaxy beaten (levels are beaten in order, so this is the same as "level 25 is beaten")
+    boolean IsGalaxyComplete(int galaxy) {
+        return getCompleted(galaxy) == LEVELS_PER_GALAXY;
+    }
+
+    // Make room for levels up to (but not including) `levels`
+    void Grow(int levels) {
+        int needed = (levels + LEVELS_PER_GALAXY - 1) / LEVELS_PER_GALAXY;
+        if(needed > completed.length) {
+            int capacity = Math.max(needed, completed.length * 2);
+            completed = Arrays.copyOf(completed, capacity);
+            underPar = Arrays.copyOf(underPar, capacity);
+
+            int old = firstPlayable.length;
+            firstPlayable = Arrays.copyOf(firstPlayable, capacity);
+            Arrays.fill(firstPlayable, old, capacity, -1);
+        }
+        galaxies = Math.max(galaxies, needed);
+    }
+
+    // Take `level` out of the totals (call before changing it)
+    void Forget(LevelCompletionInfo info, int level) {
+        int galaxy = level / LEVELS_PER_GALAXY;
+
+        if(info.getStatus(level) == 2) {
+            completed[galaxy]--;
+            if(info.IsUnderPar(level)) {
+                underPar[galaxy]--;
+            }
+        }
+    }
+
+    // Put `level` back in the totals (call after changing it)
+    void Count(LevelCompletionInfo info, int level) {
+        int galaxy = level / LEVELS_PER_GALAXY;
+        int status = info.getStatus(level);
+
+        if(status == 2) {
+            completed[galaxy]++;
+            if(info.IsUnderPar(level)) {
+                underPar[galaxy]++;
+            }
+        }
+
+        if(status == 1) {
+            if(firstPlayable[galaxy] == -1 || level < firstPlayable[galaxy]) {
+                firstPlayable[galaxy] = level;
+            }
+            if(firstPlayableLevel == -1 || level < firstPlayableLevel) {
+                firstPlayableLevel = level;
+            }
+        } else if(level == firstPlayable[galaxy]) {
+            // That was the galaxy's first playable level and it isn't playable any more. Galaxies are only 25 levels,
+            // so just look again.
+            firstPlayable[galaxy] = FindPlayable(info, galaxy);
+
+            if(level == firstPlayableLevel) {
+                firstPlayableLevel = -1;
+                for(int g = galaxy; g < galaxies && firstPlayableLevel == -1; g++) {
+                    firstPlayableLevel = firstPlayable[g];
+                }
+            }
+        }
+    }
+
+    private int FindPlayable(LevelCompletionInfo info, int galaxy) {
+        int first = galaxy * LEVELS_PER_GALAXY;
+        int last = Math.min(first + LEVELS_PER_GALAXY, info.size());
+        for(int level = first; level < last; level++) {
+            if(info.getStatus(level) == 1) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    ProgressIndex Copy() {
+        ProgressIndex copy = new ProgressIndex();
+        copy.completed = completed.clone();
+        copy.underPar = underPar.clone();
+        copy.firstPlayable = firstPlayable.clone();
+        copy.galaxies = galaxies;
+        copy.firstPlayableLevel = firstPlayableLevel;
+        return copy;
+    }
+
+    // Start over from `info`. Only for saves that don't have an index yet.
+    void Rebuild(LevelCompletionInfo info) {
+        Arrays.fill(completed, 0);
+        Arrays.fill(underPar, 0);
+        Arrays.fill(firstPlayable, -1);
+        firstPlayableLevel = -1;
+        galaxies = 0;
+
+        Grow(info.size());
+        for(int level = 0; level < info.size(); level++) {
+            Count(info, level);
+        }
+    }
+
+    // Binary form: int galaxies, int first playable level, then galaxies x (completed, underPar, firstPlayable)
+    void Write(DataOutputStream out) throws IOException {
+        out.writeInt(galaxies);
+        out.writeInt(firstPlayableLevel);
+        for(int g = 0; g < galaxies; g++) {
+            out.writeInt(completed[g]);
+            out.writeInt(underPar[g]);
+            out.writeInt(firstPlayable[g]);
+        }
+    }
+
+    void Read(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        galaxies = 0;
+        Grow(count * LEVELS_PER_GALAXY);
+
+        firstPlayableLevel = buffer.getInt();
+        for(int g = 0; g < count; g++) {
+            completed[g] = buffer.getInt();
+            underPar[g] = buffer.getInt();
+            firstPlayable[g] = buffer.getInt();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Append-only log of the player's progress. Every time a level is won or lost we add one small fixed-size record to
+ * the end of the file instead of rewriting all of levelCompletionInfo, so saving costs the same on level 5 as it does
+ * on level 500.
+ *
+ * The full levelCompletionInfo still gets saved now and then (a "snapshot", see SaveStateWriter), along with the
+ * sequence number of the last event in it. At startup we load the snapshot and replay every event after that number;
+ * then the journal can be emptied. If we die between saving the snapshot and emptying the journal, the events that
+ * are already in the snapshot get skipped because of their sequence numbers.
+ *
+ * The file starts with JOURNAL_MAGIC and JOURNAL_VERSION, then the records (big endian ints): sequence, level,
+ * status, moves, points, number of levels in LevelCompletionInfo at the time, the level's par.
+ *
+ * Journals from before the header (version 1) are just records without the par. We can still replay them; LevelHandler
+ * then saves a snapshot and empties the journal, so new records never get added to an old file. It does the same with
+ * a journal Replay() couldn't read to the end (a torn or garbled record, or one from a newer version), after moving it
+ * aside; otherwise new records would go on after the bad ones and never get read back.
+ */
+
+final class ProgressJournal {
+
+    static final String FILE = "progress.journal";
+    static final int JOURNAL_MAGIC = 0x4747504A; // "GGPJ"
+    static final int JOURNAL_VERSION = 2;
+    static final int HEADER_SIZE = 2 * 4;
+    static final int RECORD_SIZE = 7 * 4;
+    static final int LEGACY_RECORD_SIZE = 6 * 4;
+
+    // The most levels one event can add. Levels get added a galaxy at a time, so anything past this is a misread
+    // record, not progress.
+    static final int MAX_LEVELS_ADDED = 4 * GalaxyGenerator.LEVELS_PER_GALAXY;
+
+    // One win or loss, as passed to LevelCompletionInfo.Apply()
+    static final class Event {
+        final int sequence;
+        final int level;
+        final int status;
+        final int moves;
+        final int points;
+        final int size;
+        final int par;
+
+        Event(int sequence, int level, int status, int moves, int points, int size, int par) {
+            this.sequence = sequence;
+            this.level = level;
+            this.status = status;
+            this.moves = moves;
+            this.points = points;
+            this.size = size;
+            this.par = par;
+        }
+    }
+
+    private final FileHandle file;
+
+    // Set by Replay() if the file was a version 1 journal, or if it couldn't read all of it
+    private boolean legacy;
+    private boolean unread;
+
+    ProgressJournal(FileHandle file) {
+        this.file = file;
+    }
+
+    // True if the last Replay() read an old journal, which has to be emptied before anything is appended to it
+    boolean IsLegacy() { return this.legacy; }
+
+    // True if the last Replay() stopped before the end of the file. Same as an old journal, it has to be emptied before
+    // anything is appended to it.
+    boolean HasUnreadRecords() { return this.unread; }
+
+    FileHandle getFile() { return this.file; }
+
+    // How many records are in the file (including any already in the snapshot)
+    int getRecordCount() {
+        return file.exists() ? (int) (Math.max(file.length() - HEADER_SIZE, 0) / RECORD_SIZE) : 0;
+    }
+
+    // Applies every event after `afterSequence` to `info`, in order, and returns the last sequence number it saw.
+    // Stops at anything that doesn't look right (a half-written record at the end, mostly) since everything after it
+    // is suspect too; HasUnreadRecords() says if it did.
+    int Replay(LevelCompletionInfo info, int afterSequence) {
+        legacy = false;
+        unread = false;
+        if(!file.exists()) {
+            return afterSequence;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(file.readBytes());
+        int last = afterSequence;
+
+        // No header means version 1. A sequence number is never going to be as big as the magic number.
+        int version = 1;
+        if(buffer.remaining() >= HEADER_SIZE && buffer.getInt(0) == JOURNAL_MAGIC) {
+            buffer.getInt();
+            version = buffer.getInt();
+            if(version > JOURNAL_VERSION) {
+                // From a newer version of the game; we can't tell where its records start or end
+                unread = true;
+                return afterSequence;
+            }
+        }
+        legacy = version == 1;
+
+        int recordSize = legacy ? LEGACY_RECORD_SIZE : RECORD_SIZE;
+
+        while(buffer.remaining() >= recordSize) {
+            Event event = new Event(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                    legacy ? 0 : buffer.getInt());
+
+            if(event.level < 0 || event.level >= event.size || event.status < 0 || event.status > 2
+                    || event.size > info.size() + MAX_LEVELS_ADDED) {
+                unread = true;
+                break;
+            }
+            if(event.sequence <= last) {
+                // Already in the snapshot
+                continue;
+            }
+
+            info.Apply(event);
+            last = event.sequence;
+        }
+
+        if(buffer.remaining() > 0) {
+            unread = true; // Half a record
+        }
+        return last;
+    }
+
+    // Adds `events` to the end of the file in one write (with the header first, if the file is new)
+    void Append(List<Event> events) {
+        boolean newFile = !file.exists() || file.length() == 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate((newFile ? HEADER_SIZE : 0) + (events.size() * RECORD_SIZE));
+        if(newFile) {
+            buffer.putInt(JOURNAL_MAGIC);
+            buffer.putInt(JOURNAL_VERSION);
+        }
+        for(Event event : events) {
+            buffer.putInt(event.sequence);
+            buffer.putInt(event.level);
+            buffer.putInt(event.status);
+            buffer.putInt(event.moves);
+            buffer.putInt(event.points);
+            buffer.putInt(event.size);
+            buffer.putInt(event.par);
+        }
+        file.writeBytes(buffer.array(), true);
+    }
+
+    // Empty the journal. Only do this once a snapshot with everything in it is safely saved.
+    void Clear() {
+        if(file.exists()) {
+            file.delete();
+        }
+        legacy = false;
+        unread = false;
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Json;
+
+import java.util.ArrayList;
+
+/**
+ * Writes the player's save state on its own thread, so beating a level doesn't stall the frame while we wait on the
+ * disk.
+ *
+ * Progress goes out as ProgressJournal events: Record() queues one and the writer appends it to the journal, a few
+ * bytes no matter how far the player has gotten. The writer keeps its own copy of levelCompletionInfo, built by
+ * applying the same events, and every COMPACT_EVERY events saves that copy as the snapshot and empties the journal.
+ * The render thread never has to hand over (or wait on) the whole thing.
+ *
+ * Options and the highest level completed go through Save(). If the writer hasn't gotten to the last one yet, the new
+ * one just replaces it: only the latest matters, so five quick saves turn into one write. FlushNow() writes whatever
+ * is waiting before it returns; call it from pause(), since Android can kill us any time after that.
+ */
+
+final class SaveStateWriter {
+
+    // Fold the journal into the snapshot file after this many events
+    static final int COMPACT_EVERY = 100;
+
+    // The settings storeSaveState() writes, copied so the writer thread has its own
+    static final class SaveState {
+        final GameOptions gameOptions;
+        final int highestLevelCompleted;
+        long requestedNanos;
+
+        SaveState(GameOptions gameOptions, int highestLevelCompleted) {
+            this.gameOptions = gameOptions;
+            this.highestLevelCompleted = highestLevelCompleted;
+        }
+    }
+
+    private final FileHandle snapshotFile;
+    private final Preferences ini;
+
+    private final ProgressJournal journal;
+
+    // Only touched by whoever is holding writeLock. `progress` is our own copy of levelCompletionInfo, as of the
+    // last event we wrote.
+    private final Json json = new Json();
+    private final LevelCompletionInfo progress;
+    private int progressSequence;
+    private int journalRecords;
+
+    // `pending` is the latest settings nobody has written yet (null when we're clean), and `pendingEvents` are
+    // the events waiting to go in the journal. Guarded by `lock`.
+    private final Object lock = new Object();
+    private SaveState pending;
+    private ArrayList<ProgressJournal.Event> pendingEvents = new ArrayList<ProgressJournal.Event>();
+    private long pendingEventsNanos;
+    private boolean closed;
+
+    // Held for the whole of a write, so FlushNow() and the writer thread never write at the same time
+    private final Object writeLock = new Object();
+
+    private final Thread thread;
+
+    // Metrics, guarded by `lock`
+    private int savesRequested;
+    private int savesCoalesced;
+    private int savesWritten;
+    private int eventsWritten;
+    private int compactions;
+    private long lastWriteNanos;
+    private long maxWriteNanos;
+    private long totalWriteNanos;
+    private long lastLatencyNanos;
+    private long maxLatencyNanos;
+
+    SaveStateWriter(LevelHandler levelHandler, Preferences ini) {
+        this.snapshotFile = levelHandler.getSnapshotFile();
+        this.ini = ini;
+        this.journal = levelHandler.getJournal();
+
+        this.progress = levelHandler.CopyLevelCompletionInfo();
+        this.progressSequence = levelHandler.getJournalSequence();
+        this.journalRecords = journal.getRecordCount();
+
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                WriteLoop();
+            }
+        }, "SaveStateWriter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Queue `event` to be added to the journal. Never blocks on the disk.
+    void Record(ProgressJournal.Event event) {
+        synchronized(lock) {
+            if(closed) {
+                return;
+            }
+
+            if(pendingEvents.isEmpty()) {
+                pendingEventsNanos = System.nanoTime();
+            }
+            pendingEvents.add(event);
+            lock.notifyAll();
+        }
+    }
+
+    // Queue `state` to be written. Never blocks on the disk.
+    void Save(SaveState state) {
+        state.requestedNanos = System.nanoTime();
+
+        synchronized(lock) {
+            if(closed) {
+                return;
+            }
+
+            savesRequested++;
+            if(pending != null) {
+                // Still waiting on the last one; this one replaces it
+                savesCoalesced++;
+            }
+            pending = state;
+            lock.notifyAll();
+        }
+    }
+
+    // Write anything that's waiting, right now, on this thread. Returns once it's on disk.
+    void FlushNow() {
+        synchronized(writeLock) {
+            WritePending();
+        }
+    }
+
+    // Flush and stop the writer thread. Save() does nothing after this.
+    void Close() {
+        synchronized(lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        FlushNow();
+    }
+
+    private void WriteLoop() {
+        while(true) {
+            synchronized(lock) {
+                while(pending == null && pendingEvents.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch(InterruptedException e) {
+                        return;
+                    }
+                }
+                if(pending == null && pendingEvents.isEmpty()) {
+                    return; // closed and nothing left to write
+                }
+            }
+
+            // Take it under writeLock, so a FlushNow() that got here first doesn't leave us writing an older state
+            // after it wrote a newer one
+            synchronized(writeLock) {
+                try {
+                    WritePending();
+                } catch(RuntimeException e) {
+                    Gdx.app.error("SaveStateWriter", "Couldn't save", e);
+                }
+            }
+        }
+    }
+
+    // Call with writeLock held
+    private void WritePending() {
+        SaveState state;
+        ArrayList<ProgressJournal.Event> events;
+        long eventsNanos;
+
+        synchronized(lock) {
+            state = pending;
+            pending = null;
+
+            events = pendingEvents;
+            eventsNanos = pendingEventsNanos;
+            if(!events.isEmpty()) {
+                pendingEvents = new ArrayList<ProgressJournal.Event>();
+            }
+        }
+
+        if(!events.isEmpty()) {
+            WriteEvents(events, eventsNanos);
+        }
+        if(state != null) {
+            WriteSettings(state);
+        }
+    }
+
+    private void WriteEvents(ArrayList<ProgressJournal.Event> events, long requestedNanos) {
+        long start = System.nanoTime();
+
+        journal.Append(events);
+        journalRecords += events.size();
+
+        for(ProgressJournal.Event event : events) {
+            progress.Apply(event);
+            progressSequence = event.sequence;
+        }
+
+        // Fold the journal into the snapshot now and then so it doesn't grow forever (and startup doesn't have to
+        // replay all of it). The snapshot goes first; if we die before the journal is cleared, replay skips what's
+        // already in it.
+        boolean compacted = false;
+        if(journalRecords >= COMPACT_EVERY) {
+            LevelHandler.SaveSnapshot(snapshotFile, progress, progressSequence);
+            journal.Clear();
+            journalRecords = 0;
+            compacted = true;
+        }
+
+        long end = System.nanoTime();
+
+        synchronized(lock) {
+            eventsWritten += events.size();
+            if(compacted) {
+                compactions++;
+            }
+            RecordWrite(end - start, end - requestedNanos);
+        }
+    }
+
+    private void WriteSettings(SaveState state) {
+        long start = System.nanoTime();
+
+        ini.putString("gameoptions", json.toJson(state.gameOptions));
+        ini.putString("highestlevelcompleted", json.toJson(state.highestLevelCompleted));
+        ini.flush();
+
+        long end = System.nanoTime();
+
+        synchronized(lock) {
+            RecordWrite(end - start, end - state.requestedNanos);
+        }
+    }
+
+    // Call with lock held
+    private void RecordWrite(long writeNanos, long latencyNanos) {
+        savesWritten++;
+        lastWriteNanos = writeNanos;
+        maxWriteNanos = Math.max(maxWriteNanos, writeNanos);
+        totalWriteNanos += writeNanos;
+        lastLatencyNanos = latencyNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+    }
+
+    int getSavesRequested() { synchronized(lock) { return savesRequested; } }
+    int getSavesCoalesced() { synchronized(lock) { return savesCoalesced; } }
+    int getSavesWritten() { synchronized(lock) { return savesWritten; } }
+    int getEventsWritten() { synchronized(lock) { return eventsWritten; } }
+    int getCompactions() { synchronized(lock) { return compactions; } }
+
+    // Write = how long the disk took; latency = from Save() until it was on disk (includes waiting in line)
+    @Override
+    public String toString() {
+        synchronized(lock) {
+            return savesWritten + " writes for " + savesRequested + " saves (" + savesCoalesced + " coalesced) and "
+                    + eventsWritten + " journal events (" + compactions + " compactions), write "
+                    + (lastWriteNanos / 1000000) + "ms last, " + (maxWriteNanos / 1000000) + "ms max, "
+                    + (savesWritten > 0 ? (totalWriteNanos / savesWritten) / 1000000 : 0) + "ms avg, latency "
+                    + (lastLatencyNanos / 1000000) + "ms last, " + (maxLatencyNanos / 1000000) + "ms max";
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * A picture of the parts of a screen that hardly ever change, drawn once into a FrameBuffer and then put on screen as
+ * one quad every frame. PlayingScreen uses it for the background and the empty tiles with their numbers: about a
+ * hundred draws and twice as many setColor() calls a frame, none of which change unless a planet moves.
+ *
+ * Whoever owns it calls Invalidate() when something in the picture changes, checks IsDirty() before drawing, and if
+ * it is, draws the picture again between Begin() and End().
+ *
+ * The buffer has no alpha channel (RGB888) where we can get one. The background covers the whole thing, so there's
+ * nothing to see through, and it saves us from blending translucent tiles into the alpha channel and getting a
+ * see-through picture back. GLES2 doesn't promise RGB888 can be rendered to, though, so if the driver won't take it we
+ * try RGB565 and then RGBA8888 (Draw() doesn't blend, so the alpha channel never shows).
+ */
+
+final class StaticLayer {
+
+    // What we try to make the buffer with, best first
+    private static final Pixmap.Format[] FORMATS = { Pixmap.Format.RGB888, Pixmap.Format.RGB565, Pixmap.Format.RGBA8888 };
+
+    private FrameBuffer buffer;
+    private TextureRegion region;
+    private int width;
+    private int height;
+    private boolean dirty = true;
+
+    StaticLayer(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    boolean IsDirty() { return this.dirty || this.buffer == null; }
+
+    // Something in the picture changed; draw it again before it's used next
+    void Invalidate() {
+        dirty = true;
+    }
+
+    // The buffer should be the same size as the screen so the picture lands on it pixel for pixel
+    void Resize(int width, int height) {
+        if(width == this.width && height == this.height) {
+            return;
+        }
+        this.width = width;
+        this.height = height;
+        Dispose();
+        dirty = true;
+    }
+
+    // Start drawing the picture. `batch` must not be drawing already; everything drawn with it until End() goes into the
+    // layer instead of on screen.
+    void Begin(SpriteBatch batch, Matrix4 projection) {
+        if(buffer == null) {
+            buffer = NewFrameBuffer(Math.max(width, 1), Math.max(height, 1));
+
+            // FrameBuffer textures come out upside down
+            region = new TextureRegion(buffer.getColorBufferTexture());
+            region.flip(false, true);
+        }
+
+        buffer.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        batch.setProjectionMatrix(projection);
+        batch.setColor(1f, 1f, 1f, 1f);
+        batch.begin();
+    }
+
+    // FrameBuffer throws if the driver says the buffer is incomplete, which is how an unsupported format shows up
+    private static FrameBuffer NewFrameBuffer(int width, int height) {
+        for(int a = 0; a < FORMATS.length; a++) {
+            try {
+                return new FrameBuffer(FORMATS[a], width, height, false);
+            } catch(IllegalStateException e) {
+                if(a == FORMATS.length - 1) {
+                    throw e;
+                }
+                Gdx.app.error("StaticLayer", "Can't render to " + FORMATS[a] + ", trying " + FORMATS[a + 1], e);
+            }
+        }
+        return null;
+    }
+
+    void End(SpriteBatch batch) {
+        batch.end();
+        buffer.end();
+
+        dirty = false;
+    }
+
+    // Put the picture on screen. Call between batch.begin() and batch.end().
+    void Draw(SpriteBatch batch, float x, float y, float width, float height) {
+        if(region == null) {
+            return;
+        }
+
+        // It's opaque, so there's no point blending it with whatever's under it
+        batch.setColor(1f, 1f, 1f, 1f);
+        batch.disableBlending();
+        batch.draw(region, x, y, width, height);
+        batch.enableBlending();
+    }
+
+    void Dispose() {
+        if(buffer != null) {
+            buffer.dispose();
+            buffer = null;
+            region = null;
+        }
+    }
+}
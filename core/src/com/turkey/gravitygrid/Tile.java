@@ -57,4 +57,15 @@ public class Tile {
 
     }
 
+    // Put `type` on this tile for a new level (or a restart). The tile keeps its place and value.
+    public void Reset(Tile.TileType type) {
+        this.type = type;
+        this.status = TileStatus.NONE;
+        this.timeSinceLastFrame = 0.0f;
+        this.overlayFrameNumber = 0;
+        this.overlayRotation = 0.0f;
+
+        this.rand = MathUtils.random(0,3);
+    }
+
 }
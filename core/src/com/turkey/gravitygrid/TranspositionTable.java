@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of board states the LevelSolver has already searched.
+ *
+ * Lots of different move orders end up at the same 49-tile layout, so instead of searching it again we remember
+ * "from this board, there's no solution in N moves or less". Boards are hashed with Zobrist keys (one random long for
+ * every tile number x tile type, XOR'd together), which we can update with two XORs per move.
+ *
+ * The table is two primitive arrays, open-addressed in buckets of two. When a bucket is full we keep whichever entry
+ * took more moves to prove (it saves more work later) and replace the other one. clear() just bumps a generation
+ * number so starting a new level doesn't have to touch the whole table.
+ *
+ * Not thread safe; one table per solver.
+ */
+
+public final class TranspositionTable {
+
+    // Tile types go up to 9 (blocked), so give every tile ten keys
+    private static final int TYPES = 10;
+
+    // ZOBRIST[tile * TYPES + type]
+    private static final long[] ZOBRIST = new long[Bitboard.TILES * TYPES];
+
+    // MOVE[type][tile] is what to XOR in when a planet of `type` leaves or lands on `tile`
+    private static final long[][] MOVE = new long[TYPES][Bitboard.TILES];
+
+    static {
+        // Fixed seed so hashes are the same on every run (handy when debugging)
+        RandomXS128 random = new RandomXS128(0x6772617669747947L);
+        for(int a = 0; a < ZOBRIST.length; a++) {
+            ZOBRIST[a] = random.nextLong();
+        }
+        for(int type = 0; type < TYPES; type++) {
+            for(int tile = 0; tile < Bitboard.TILES; tile++) {
+                MOVE[type][tile] = ZOBRIST[tile * TYPES + type] ^ ZOBRIST[tile * TYPES + Bitboard.NONE];
+            }
+        }
+    }
+
+    // Zobrist hash of the first 49 elements of a level array
+    public static long hash(int[] level) {
+        long hash = 0;
+        for(int tile = 0; tile < Bitboard.TILES; tile++) {
+            hash ^= ZOBRIST[tile * TYPES + level[tile]];
+        }
+        return hash;
+    }
+
+    // Hash after a planet of `type` moves from one tile to another
+    public static long move(long hash, int type, int from, int to) {
+        return hash ^ MOVE[type][from] ^ MOVE[type][to];
+    }
+
+    private static final int EMPTY = -1;
+
+    private final long[] keys;
+    private final int[] entries; // generation << 8 | moves
+    private final int mask;
+
+    private int generation;
+
+    private long probes;
+    private long hits;
+    private long stores;
+    private long replacements;
+
+    // `sizeLog2` is the log2 of the number of entries, e.g. 16 = 65536 entries = 768KB
+    public TranspositionTable(int sizeLog2) {
+        int size = 1 << sizeLog2;
+        keys = new long[size];
+        entries = new int[size];
+        mask = size - 1;
+        generation = 1; // entries start at generation 0, so they all read as empty
+    }
+
+    // Forget everything (in O(1))
+    public void clear() {
+        generation++;
+        if(generation > 0xFFFFFF) {
+            // Wrapped around, so we really do have to wipe it
+            Arrays.fill(entries, 0);
+            generation = 1;
+        }
+    }
+
+    // Returns the number of moves this board was already proven unsolvable in, or EMPTY if we haven't seen it
+    public int probe(long key) {
+        probes++;
+        int slot = (int) key & mask & ~1;
+
+        for(int i = slot; i <= slot + 1; i++) {
+            int entry = entries[i];
+            if((entry >>> 8) == generation && keys[i] == key) {
+                hits++;
+                return entry & 0xFF;
+            }
+        }
+        return EMPTY;
+    }
+
+    // Remember that `key` has no solution in `moves` moves or less
+    public void store(long key, int moves) {
+        stores++;
+        int slot = (int) key & mask & ~1;
+        int entry = (generation << 8) | (moves & 0xFF);
+
+        int victim = -1;
+        int victimMoves = Integer.MAX_VALUE;
+
+        for(int i = slot; i <= slot + 1; i++) {
+            int existing = entries[i];
+
+            if((existing >>> 8) != generation) {
+                // Stale or empty, take it
+                keys[i] = key;
+                entries[i] = entry;
+                return;
+            }
+
+            if(keys[i] == key) {
+                // Same board, keep the stronger result
+                if(moves > (existing & 0xFF)) {
+                    entries[i] = entry;
+                }
+                return;
+            }
+
+            if((existing & 0xFF) < victimMoves) {
+                victimMoves = existing & 0xFF;
+                victim = i;
+            }
+        }
+
+        // Both full. Replace the shallower one, it's cheaper to work out again.
+        replacements++;
+        keys[victim] = key;
+        entries[victim] = entry;
+    }
+
+    public int size() { return entries.length; }
+    public long getProbes() { return probes; }
+    public long getHits() { return hits; }
+    public long getStores() { return stores; }
+    public long getReplacements() { return replacements; }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line tool that makes ETC1 copies of the packed atlases, for devices that can upload ETC1 straight to the GPU
+ * instead of decoding PNGs.
+ *
+ *   AtlasCompressor <atlas dir> [--report <file>]
+ *
+ * For every <atlas dir>/<name>.atlas whose regions are all fully opaque, writes <atlas dir>/etc1/<name>.atlas and an
+ * .etc1 file for each page. ETC1 has no alpha channel, so atlases with any transparency are left alone and the game
+ * keeps loading their PNGs. AssetLoader picks the etc1/ copy when the device supports ETC1 and one exists.
+ *
+ * Only the pixels inside the regions count. pack.json rounds pages up to a power of two and pads between images, so
+ * every page has transparent space around its regions that nothing ever draws; in the ETC1 copy that space is black.
+ *
+ * The report compares each page both ways: file size, how long it takes to get the pixels ready to upload (decoding
+ * the PNG vs. reading the ETC1 file), and how much GPU memory it takes. The times are from this machine, so only
+ * compare them with each other.
+ */
+
+public class AtlasCompressor {
+
+    static final String ETC1_DIR = "etc1";
+
+    // One line of the report
+    static final class PageReport {
+        String atlas;
+        String page;
+        int width;
+        int height;
+        boolean opaque;
+        long pngBytes;
+        long pngDecodeNanos;
+        long etc1Bytes;
+        long etc1ReadNanos;
+
+        long pngGpuBytes() { return (long) width * height * 4; }
+        long etc1GpuBytes() { return opaque ? (long) width * height / 2 : pngGpuBytes(); }
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        if(args.length < 1) {
+            System.out.println("usage: AtlasCompressor <atlas dir> [--report <file>]");
+            System.exit(2);
+        }
+
+        File atlasDir = new File(args[0]);
+        File reportFile = null;
+        for(int a = 1; a + 1 < args.length; a += 2) {
+            if(args[a].equals("--report")) {
+                reportFile = new File(args[a + 1]);
+            }
+        }
+
+        // Pixmap and ETC1 are native code
+        GdxNativesLoader.load();
+
+        File etc1Dir = new File(atlasDir, ETC1_DIR);
+        etc1Dir.mkdirs();
+
+        List<PageReport> pages = new ArrayList<PageReport>();
+
+        File[] atlasFiles = atlasDir.listFiles();
+        if(atlasFiles == null) {
+            System.out.println(atlasDir + " isn't a directory");
+            System.exit(1);
+        }
+
+        for(File atlasFile : atlasFiles) {
+            if(atlasFile.getName().endsWith(".atlas")) {
+                pages.addAll(compress(atlasFile, etc1Dir));
+            }
+        }
+
+        String report = report(pages);
+        System.out.print(report);
+        if(reportFile != null) {
+            reportFile.getParentFile().mkdirs();
+            PrintWriter out = new PrintWriter(new FileWriter(reportFile));
+            try {
+                out.print(report);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private static List<PageReport> compress(File atlasFile, File etc1Dir) throws IOException {
+
+        String atlasName = atlasFile.getName().substring(0, atlasFile.getName().length() - ".atlas".length());
+        FileHandle atlasHandle = new FileHandle(atlasFile);
+        TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(atlasHandle, atlasHandle.parent(), false);
+
+        List<PageReport> reports = new ArrayList<PageReport>();
+        List<Pixmap> pixmaps = new ArrayList<Pixmap>();
+        boolean allOpaque = true;
+
+        for(TextureAtlas.TextureAtlasData.Page page : data.getPages()) {
+            PageReport report = new PageReport();
+            report.atlas = atlasName;
+            report.page = page.textureFile.name();
+            report.pngBytes = page.textureFile.length();
+
+            long start = System.nanoTime();
+            Pixmap pixmap = new Pixmap(page.textureFile);
+            report.pngDecodeNanos = System.nanoTime() - start;
+
+            report.width = pixmap.getWidth();
+            report.height = pixmap.getHeight();
+            report.opaque = isOpaque(pixmap, page, data.getRegions());
+            allOpaque &= report.opaque;
+
+            reports.add(report);
+            pixmaps.add(pixmap);
+        }
+
+        File etc1Atlas = new File(etc1Dir, atlasFile.getName());
+
+        if(!allOpaque) {
+            // Leave it as PNG; also get rid of an ETC1 copy left over from when it was opaque
+            etc1Atlas.delete();
+            for(PageReport report : reports) {
+                report.opaque = false;
+            }
+        } else {
+            String atlasText = atlasHandle.readString("UTF-8");
+
+            for(int a = 0; a < reports.size(); a++) {
+                PageReport report = reports.get(a);
+                String etc1Name = report.page.substring(0, report.page.lastIndexOf('.')) + ".etc1";
+                FileHandle etc1File = new FileHandle(new File(etc1Dir, etc1Name));
+
+                // Copy the page over as is, without blending. The space outside the regions is transparent and ends
+                // up whatever colour the packer left there, so black it out first.
+                Pixmap rgb = new Pixmap(report.width, report.height, Pixmap.Format.RGB888);
+                rgb.setColor(0, 0, 0, 1);
+                rgb.fill();
+                Pixmap.Blending blending = Pixmap.getBlending();
+                Pixmap.setBlending(Pixmap.Blending.None);
+                try {
+                    Pixmap page = pixmaps.get(a);
+                    for(TextureAtlas.TextureAtlasData.Region region : data.getRegions()) {
+                        if(region.page == data.getPages().get(a)) {
+                            int width = region.rotate ? region.height : region.width;
+                            int height = region.rotate ? region.width : region.height;
+                            rgb.drawPixmap(page, region.left, region.top, width, height, region.left, region.top, width, height);
+                        }
+                    }
+                } finally {
+                    Pixmap.setBlending(blending);
+                }
+                ETC1.ETC1Data etc1 = ETC1.encodeImagePKM(rgb);
+                etc1.write(etc1File);
+                etc1.dispose();
+                rgb.dispose();
+
+                report.etc1Bytes = etc1File.length();
+
+                // What ETC1TextureData does on the device before the upload
+                long start = System.nanoTime();
+                new ETC1.ETC1Data(etc1File).dispose();
+                report.etc1ReadNanos = System.nanoTime() - start;
+
+                // The page name is on a line of its own
+                atlasText = atlasText.replace("\n" + report.page + "\n", "\n" + etc1Name + "\n");
+            }
+
+            new FileHandle(etc1Atlas).writeString(atlasText, false, "UTF-8");
+        }
+
+        for(Pixmap pixmap : pixmaps) {
+            pixmap.dispose();
+        }
+        return reports;
+    }
+
+    // True if every pixel of every region on `page` is fully opaque
+    private static boolean isOpaque(Pixmap pixmap, TextureAtlas.TextureAtlasData.Page page,
+                                    Iterable<TextureAtlas.TextureAtlasData.Region> regions) {
+        // Everything we pack is RGBA8888 (see pack.json), so read the alpha bytes straight out of the buffer;
+        // anything else goes pixel by pixel
+        boolean rgba = pixmap.getFormat() == Pixmap.Format.RGBA8888;
+        ByteBuffer pixels = pixmap.getPixels();
+        int stride = pixmap.getWidth() * 4;
+
+        for(TextureAtlas.TextureAtlasData.Region region : regions) {
+            if(region.page != page) {
+                continue;
+            }
+            // Rotated regions are stored on their side
+            int width = region.rotate ? region.height : region.width;
+            int height = region.rotate ? region.width : region.height;
+
+            for(int y = region.top; y < region.top + height; y++) {
+                for(int x = region.left; x < region.left + width; x++) {
+                    if(rgba) {
+                        if(pixels.get(y * stride + x * 4 + 3) != (byte) 0xff) {
+                            return false;
+                        }
+                    } else if((pixmap.getPixel(x, y) & 0xff) != 0xff) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String report(List<PageReport> pages) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-14s %-18s %9s %6s %10s %9s %10s %9s %10s %10s%n", "atlas", "page", "size", "opaque",
+                "png bytes", "png ms", "etc1 bytes", "etc1 ms", "png gpu", "etc1 gpu"));
+
+        long pngBytes = 0, etc1Bytes = 0, pngNanos = 0, etc1Nanos = 0, pngGpu = 0, etc1Gpu = 0;
+        for(PageReport page : pages) {
+            out.append(String.format("%-14s %-18s %9s %6s %10d %9.1f %10s %9s %10d %10d%n", page.atlas, page.page,
+                    page.width + "x" + page.height, page.opaque ? "yes" : "no", page.pngBytes, page.pngDecodeNanos / 1e6,
+                    page.opaque ? Long.toString(page.etc1Bytes) : "-",
+                    page.opaque ? String.format("%.1f", page.etc1ReadNanos / 1e6) : "-", page.pngGpuBytes(),
+                    page.etc1GpuBytes()));
+
+            pngBytes += page.pngBytes;
+            pngNanos += page.pngDecodeNanos;
+            pngGpu += page.pngGpuBytes();
+            etc1Bytes += page.opaque ? page.etc1Bytes : page.pngBytes;
+            etc1Nanos += page.opaque ? page.etc1ReadNanos : page.pngDecodeNanos;
+            etc1Gpu += page.etc1GpuBytes();
+        }
+
+        out.append(String.format("%nAll PNG:       %d bytes on disk, %.1f ms to decode, %.1f MB on the GPU%n",
+                pngBytes, pngNanos / 1e6, pngGpu / (1024.0 * 1024.0)));
+        out.append(String.format("ETC1 where opaque: %d bytes on disk, %.1f ms to decode/read, %.1f MB on the GPU%n",
+                etc1Bytes, etc1Nanos / 1e6, etc1Gpu / (1024.0 * 1024.0)));
+        return out.toString();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import java.util.Random;
+
+/**
+ * Compares the level generator strategies on the same levels: how many good levels per second each one makes, and how
+ * many of its attempts LevelHandler ends up throwing away.
+ *
+ * Runs headless (no Gdx needed):
+ *   ./gradlew tools:benchmark -Pargs="[levels] [packSeed]"
+ *
+ * Every strategy gets the same levels (level numbers 2-124 over and over) and the same seeds, so runs are repeatable.
+ * Par isn't solved here, this is just the generators.
+ */
+
+public class GeneratorBenchmark {
+
+    public static void main(String[] args) {
+
+        int levels = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        long packSeed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+
+        for(BitboardLevelGenerator.Strategy strategy : BitboardLevelGenerator.Strategy.values()) {
+            // Once to warm up the JIT, once for real
+            run(strategy, levels / 10, packSeed);
+            System.out.println(run(strategy, levels, packSeed));
+        }
+    }
+
+    public static String run(BitboardLevelGenerator.Strategy strategy, int levels, long packSeed) {
+
+        BitboardLevelGenerator generator = BitboardLevelGenerator.create(strategy);
+        GenerationStats stats = new GenerationStats();
+
+        // Levels whose parameters can't work at all (see GenerationStats.usedFallback) burn through every attempt on
+        // both strategies and would swamp the numbers, so they're counted separately.
+        int good = 0;
+        int fallbacks = 0;
+        long attempts = 0;
+        long nulls = 0;
+        long rejected = 0;
+        long nanos = 0;
+
+        for(int a = 0; a < levels; a++) {
+            int levelNum = 2 + (a % 123);
+
+            if(LevelHandler.getTutorialLevel(levelNum) != null) {
+                continue;
+            }
+
+            Random random = LevelSeed.randomFor(packSeed + (a / 123), levelNum);
+            LevelParameters parameters = LevelParameters.forLevel(levelNum, random);
+            generator.setRandom(random);
+
+            LevelHandler.GenerateLevel(generator, null, parameters, stats);
+
+            if(stats.usedFallback) {
+                fallbacks++;
+                continue;
+            }
+
+            good++;
+            attempts += stats.attempts;
+            nulls += stats.nullReturns;
+            rejected += stats.rejectedRed + stats.rejectedBlue + stats.rejectedGreen;
+            nanos += stats.elapsedNanos;
+        }
+
+        double seconds = nanos / 1000000000.0;
+
+        return String.format("%-12s %8.0f levels/sec  %6.2f attempts/level  %5.1f%% null  %5.1f%% rejected  (%d levels, %d fell back)",
+                strategy,
+                good / seconds,
+                attempts / (double) good,
+                100.0 * nulls / attempts,
+                100.0 * rejected / attempts,
+                good,
+                fallbacks);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2016 Jesse Lawson. All Rights Reserved. No part of this code may be redistributed, reused, or otherwise used in any way, shape, or form without written permission from the author.
+ */
+
+package com.turkey.gravitygrid;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Command line tool for building and checking level packs on a build box, no device (or Gdx.app) needed.
+ *
+ *   build <file> [--seed N] [--first G] [--galaxies N] [--threads N] [--strategy RANDOM_MOVES|BACKWARD]
+ *       Generates, solves, and de-duplicates galaxies G..G+N-1 with the GalaxyGenerator and writes them to <file>.
+ *
+ *   check <file>
+ *       Reads a pack back, re-solves every level, and reports levels whose par doesn't match the solver, levels that
+ *       are the same puzzle as a lower one in their galaxy, and fallback levels.
+ *
+ * This lives in the com.turkey.gravitygrid package (in the tools module) so it can use LevelHandler's static
+ * generation code directly.
+ *
+ * Packs are written in the LevelPack format, which is what the game reads.
+ */
+
+public class LevelPackBuilder {
+
+    public static void main(String[] args) throws IOException {
+
+        if(args.length < 2) {
+            usage();
+            return;
+        }
+
+        if(args[0].equals("build")) {
+            build(args);
+        } else if(args[0].equals("check")) {
+            System.exit(check(args[1]) ? 0 : 1);
+        } else {
+            usage();
+        }
+    }
+
+    private static void usage() {
+        System.out.println("usage: LevelPackBuilder build <file> [--seed N] [--first G] [--galaxies N] [--threads N] [--strategy RANDOM_MOVES|BACKWARD]");
+        System.out.println("       LevelPackBuilder check <file>");
+        System.exit(2);
+    }
+
+    private static void build(String[] args) throws IOException {
+
+        String file = args[1];
+        long seed = 1L;
+        int first = 0;
+        int galaxies = 40;
+        int threads = Runtime.getRuntime().availableProcessors();
+        BitboardLevelGenerator.Strategy strategy = BitboardLevelGenerator.Strategy.RANDOM_MOVES;
+
+        for(int a = 2; a + 1 < args.length; a += 2) {
+            String option = args[a];
+            String value = args[a + 1];
+
+            if(option.equals("--seed")) { seed = Long.parseLong(value); }
+            else if(option.equals("--first")) { first = Integer.parseInt(value); }
+            else if(option.equals("--galaxies")) { galaxies = Integer.parseInt(value); }
+            else if(option.equals("--threads")) { threads = Integer.parseInt(value); }
+            else if(option.equals("--strategy")) { strategy = BitboardLevelGenerator.Strategy.valueOf(value); }
+            else { usage(); }
+        }
+
+        long start = System.nanoTime();
+
+        GalaxyGenerator generator = new GalaxyGenerator(seed, threads, strategy);
+        int[][][] levels;
+        try {
+            levels = generator.generate(first, galaxies);
+        } finally {
+            generator.shutdown();
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        int count = galaxies * GalaxyGenerator.LEVELS_PER_GALAXY;
+        int fallbacks = 0;
+        int[] parCounts = new int[16];
+
+        int[][] flat = new int[count][];
+        for(int g = 0; g < galaxies; g++) {
+            for(int a = 0; a < GalaxyGenerator.LEVELS_PER_GALAXY; a++) {
+                int[] level = levels[g][a];
+                flat[(g * GalaxyGenerator.LEVELS_PER_GALAXY) + a] = level;
+
+                if(Arrays.equals(level, LevelHandler.FALLBACK_LEVEL)) { fallbacks++; }
+                parCounts[Math.min(level[52], parCounts.length - 1)]++;
+            }
+        }
+
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            LevelPack.write(out, seed, first * GalaxyGenerator.LEVELS_PER_GALAXY, flat);
+        } finally {
+            out.close();
+        }
+
+        System.out.println(String.format("Wrote %d levels (galaxies %d-%d, seed %d, %s) to %s in %.2fs on %d threads",
+                count, first, first + galaxies - 1, seed, strategy, file, elapsed / 1000000000.0, threads));
+        System.out.println("Fallback levels: " + fallbacks);
+        System.out.println("Par: " + parHistogram(parCounts));
+    }
+
+    private static boolean check(String file) throws IOException {
+
+        LevelPack pack;
+        try {
+            pack = LevelPack.map(new File(file));
+        } catch(GdxRuntimeException e) {
+            System.out.println(file + ": " + e.getMessage());
+            return false;
+        }
+
+        int firstLevel = pack.getFirstLevel();
+        int[][] levels = new int[pack.size()][];
+        for(int i = 0; i < levels.length; i++) {
+            levels[i] = pack.getLevel(firstLevel + i);
+        }
+
+        LevelSolver solver = new LevelSolver();
+        LevelIndex galaxyIndex = new LevelIndex(GalaxyGenerator.LEVELS_PER_GALAXY);
+
+        int wrongPar = 0;
+        int unsolved = 0;
+        int duplicates = 0;
+        int fallbacks = 0;
+
+        for(int i = 0; i < levels.length; i++) {
+            int levelNum = firstLevel + i;
+            int[] level = levels[i];
+
+            if(levelNum % GalaxyGenerator.LEVELS_PER_GALAXY == 0) {
+                galaxyIndex.clear();
+            }
+
+            if(Arrays.equals(level, LevelHandler.FALLBACK_LEVEL)) {
+                fallbacks++;
+            }
+
+            // Tutorial pars are picked by hand, so leave them be
+            if(LevelHandler.getTutorialLevel(levelNum) != null) {
+                galaxyIndex.put(LevelCanonicalizer.hash(level), levelNum);
+                continue;
+            }
+
+            // The solver gives up on really big levels, in which case the pack keeps the generator's par
+            int par = solver.solve(level, level[52]);
+            if(par == LevelSolver.UNSOLVED) {
+                unsolved++;
+                System.out.println("Level " + (levelNum + 1) + ": couldn't solve in " + level[52] + " moves");
+            } else if(par != level[52]) {
+                wrongPar++;
+                System.out.println("Level " + (levelNum + 1) + ": par is " + level[52] + ", solver says " + par);
+            }
+
+            int earlier = galaxyIndex.put(LevelCanonicalizer.hash(level), levelNum);
+            if(earlier != LevelIndex.MISSING) {
+                duplicates++;
+                System.out.println("Level " + (levelNum + 1) + ": same puzzle as level " + (earlier + 1));
+            }
+        }
+
+        System.out.println(String.format("%d levels: %d wrong par, %d unsolved, %d duplicates, %d fallbacks",
+                levels.length, wrongPar, unsolved, duplicates, fallbacks));
+
+        return wrongPar == 0 && unsolved == 0;
+    }
+
+    private static String parHistogram(int[] parCounts) {
+        StringBuilder sb = new StringBuilder();
+        for(int par = 0; par < parCounts.length; par++) {
+            if(parCounts[par] > 0) {
+                sb.append(par).append(':').append(parCounts[par]).append(' ');
+            }
+        }
+        return sb.toString().trim();
+    }
+}